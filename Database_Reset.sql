@@ -1,39 +1,7 @@
+DROP TABLE IF EXISTS "Schema_Migrations";
 DROP TABLE IF EXISTS "Transactions";
 DROP TABLE IF EXISTS "User_Accounts";
 DROP TABLE IF EXISTS "Account_Data";
 DROP TABLE IF EXISTS "User_Data";
 
-CREATE TABLE IF NOT EXISTS "User_Data" (
-	"Username" VARCHAR(25) NOT NULL PRIMARY KEY,
-	"First_Name" VARCHAR(20) NOT NULL,
-	"Last_Name" VARCHAR(25) NOT NULL,
-	"Phone_Number" VARCHAR(20),
-    "Email" VARCHAR(254),
-    "Address_Line_1" VARCHAR(100) NOT NULL,
-    "Address_Line_2" VARCHAR(100),
-    "State" CHAR(2) NOT NULL,
-    "Zip_Code" VArCHAR(10) NOT NULL,
-	"SSN_Hash" CHAR(64) NOT NULL,
-    "Pass_Hash" CHAR(64) NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS "Account_Data" (
-  "Account_ID" CHAR(64) NOT NULL PRIMARY KEY,
-  "Balance" NUMERIC(20, 2) NOT NULL,
-  "Type" VARCHAR(9) NOT NULL,
-  "Active" BOOL NOT NULL
-);
-
-CREATE TABLE IF NOT EXISTS "User_Accounts" (
-  "Username" VARCHAR(25) NOT NULL REFERENCES "User_Data"("Username") ON DELETE CASCADE ON UPDATE CASCADE,
-  "Account_ID" CHAR(64) NOT NULL REFERENCES "Account_Data"("Account_ID") ON DELETE CASCADE ON UPDATE CASCADE,
-  PRIMARY KEY ("Username", "Account_ID")
-);
-
-CREATE TABLE IF NOT EXISTS "Transactions" (
-  "Transacation_ID" CHAR(64) NOT NULL PRIMARY KEY,
-  "Date_Made" Date,
-  "Amount" NUMERIC(20, 2) NOT NULL,
-  "From_Account" CHAR(64) REFERENCES "Account_Data"("Account_ID") ON DELETE RESTRICT ON UPDATE CASCADE,
-  "To_Account" CHAR(64)
-);
\ No newline at end of file
+-- The tables are rebuilt by the migrations under src/migrations the next time the app starts
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.johnsbank.java.app;
 
 import com.johnsbank.java.services.BankService;                              // Interface to the banking service
 import com.johnsbank.java.services.BankServiceImplementation;                // Instance of the Banking Service
+import com.johnsbank.java.utilities.MigrationRunner;                         // Keeps the database schema up to date
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -24,10 +25,17 @@ public final class BankingApp {
         
         // Instantiates the instance to the banking service
         BankService service = BankServiceImplementation.getInstance();
+        boolean migrated = false;                                            // Whether the schema is up to date
         while (running) {
 
             clear();
             if(service.isConnected()) {
+                // The first time the database is reached, bring its schema up to date
+                if(!migrated) {
+                    MigrationRunner.getInstance().migrate();
+                    migrated = true;
+                }
+
                 // The message greeting the user to the application
                 String[] welcomeMessage = {
                         "Welcome to The John Banking App",
@@ -1,17 +1,20 @@
 package com.johnsbank.java.menus;
 
 import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
 import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.services.AsyncBankService;
+import com.johnsbank.java.services.AsyncBankServiceImplementation;
 import com.johnsbank.java.services.BankService;
 import com.johnsbank.java.services.BankServiceImplementation;
 import com.johnsbank.java.utilities.HashGenerator;
+import com.johnsbank.java.utilities.InputValidation;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
 
-import java.math.BigDecimal;
-import java.text.NumberFormat;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.Locale;
@@ -27,6 +30,8 @@ public final class MenuImplementation {
 
     // Used to access the service call in the application
     private static final BankService service = BankServiceImplementation.getInstance();
+    // Used to load what the menus show in parallel
+    private static final AsyncBankService asyncService = AsyncBankServiceImplementation.getInstance();
     // Used to generate hashes from objects
     private static final HashGenerator hash = HashGenerator.getInstance();
 
@@ -93,7 +98,7 @@ public final class MenuImplementation {
             // if a console is attached, make the password secure
             if (System.console() != null) {
                 char[] charPass = System.console().readPassword("Password: ");
-                password = hash.getMessageDigest(new String(charPass));
+                password = hash.getMessageDigest(charPass);
             } else {
                 System.out.print("Password: ");
                 password = hash.getMessageDigest(scan.nextLine());
@@ -108,7 +113,7 @@ public final class MenuImplementation {
         if(user == null)
             System.out.println("You have exceeded the log-in attempts for this session, please try again later.");
         else
-            userMenu(user);
+            userMenu(asyncService.loadUser(user).join());
     }
 
     /**
@@ -239,7 +244,7 @@ public final class MenuImplementation {
             return;
 
         Account newAccount = new Account();
-        newAccount.setBalance(new BigDecimal(0));
+        newAccount.setBalance(Money.ZERO);
 
         if (!setAccountType(optionSelected, newAccount))
             return;
@@ -274,16 +279,19 @@ public final class MenuImplementation {
     private static void viewTransactions(User user) {
 
         int count = 0;
-        MyLinkedList<Transaction> transactions;
-        try {
-            transactions = service.getAllTransactions(user);
-        }catch (ResourceNotFoundException e)
-        {
-            throw new RuntimeException("Logged in user doesn't exist!", e);
-        }
-        Iterator<Transaction> it =  transactions.iterator();
+        String pageToken = null;    // Continues the history after the page last shown
+        TransactionPage page;
+        do {
+            // Only the transactions shown on this page are fetched
+            try {
+                page = service.getTransactionPage(user, pageToken, 3);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("Logged in user doesn't exist!", e);
+            }
+            if(page.getTransactions().isEmpty())
+                break;
+            pageToken = page.getNextToken();
 
-        while(it.hasNext()) {
             // Clear the screen and take the users input
             clear();
 
@@ -302,16 +310,16 @@ public final class MenuImplementation {
             // Print the top of the screen
             topFramePrint(topInstructions);
             // Print out the Transactions
-            for(int i = 0; i < 3 && it.hasNext(); ++i)
+            for(Transaction transaction : page.getTransactions())
             {
-                System.out.println(it.next().toString());
+                System.out.println(transaction.toString());
             }
             // Print the bottom of the screen
             bottomFramePrint(bottomInstructions);
 
             if(scan.nextLine().equalsIgnoreCase("exit"))
                 return;
-        }
+        } while(pageToken != null);
 
         // Instructions for the viewing the menu
         String[] instructions = {
@@ -448,8 +456,7 @@ public final class MenuImplementation {
                 "Account Selected",
                 account.getAccountID(),
                 "Account Type: " +account.getType().toString(),
-                "Current available Balance: " + NumberFormat.getCurrencyInstance(Locale.US)
-                        .format(account.getBalance())
+                "Current available Balance: " + account.getBalance().format()
         };
         framePrint(instructions);
         scan.nextLine();
@@ -466,26 +473,25 @@ public final class MenuImplementation {
         // Instructions for the viewing the menu
         String[] instructions = {
                 "To make a withdrawal, enter the amount you wish to withdraw",
-                "Current available Balance: " + NumberFormat.getCurrencyInstance(Locale.US)
-                        .format(account.getBalance())
+                "Current available Balance: " + account.getBalance().format()
         };
         framePrint(instructions);
 
 
         System.out.print("Enter the amount: ");
         String input = scan.nextLine();
-        while (!input.matches("(0|[1-9][0-9]{0,2})(,\\d{3})*(\\.\\d{2})?")) {
+        while (!InputValidation.isAmount(input)) {
             System.out.println("That is not a valid amount, Please enter an amount in the form of 5,432.10\n");
             System.out.print("Enter the amount: ");
             input = scan.nextLine();
         }
 
-        BigDecimal amountWithdrawn = new BigDecimal(input.replace(",",""));
+        Money amountWithdrawn = Money.parse(input.replace(",",""));
         if(account.getBalance().compareTo(amountWithdrawn) > -1) {
             if (service.makeWithdrawal(account, amountWithdrawn)) { // The withdrawal is successful
                 clear();
                 String[] output = {"You successfully withdrew: " +
-                        NumberFormat.getCurrencyInstance(Locale.US).format(amountWithdrawn)};
+                        amountWithdrawn.format()};
                 framePrint(output);
                 account.setBalance(account.getBalance().subtract(amountWithdrawn));
                 scan.nextLine();
@@ -517,17 +523,17 @@ public final class MenuImplementation {
 
         System.out.print("Enter the amount: ");
         String input = scan.nextLine();
-        while (!input.matches("(0|[1-9][0-9]{0,2})(,\\d{3})*(\\.\\d{2})?")) {
+        while (!InputValidation.isAmount(input)) {
             System.out.println("That is not a valid amount, Please enter an amount in the form of 5,432.10\n");
             System.out.print("Enter the amount: ");
             input = scan.nextLine();
         }
 
-        BigDecimal amountDeposited = new BigDecimal(input.replace(",",""));
+        Money amountDeposited = Money.parse(input.replace(",",""));
         if (service.makeDeposit(account, amountDeposited)) { // The deposit is successful
             clear();
             String[] output = {"You successfully deposited: " +
-                    NumberFormat.getCurrencyInstance(Locale.US).format(amountDeposited)};
+                    amountDeposited.format()};
             framePrint(output);
             account.setBalance(account.getBalance().add(amountDeposited));
             scan.nextLine();
@@ -668,15 +674,19 @@ public final class MenuImplementation {
     private static void viewTransactions(Account account) {
 
         int count = 0;
-        MyLinkedList<Transaction> transactions;
-        try {
-            transactions = service.getAllTransactions(account);
-        } catch (ResourceNotFoundException e) {
-            throw new RuntimeException("Logged in Account does not Exist!", e);
-        }
-        Iterator<Transaction> it =  transactions.iterator();
+        String pageToken = null;    // Continues the history after the page last shown
+        TransactionPage page;
+        do {
+            // Only the transactions shown on this page are fetched
+            try {
+                page = service.getTransactionPage(account, pageToken, 4);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("Logged in Account does not Exist!", e);
+            }
+            if(page.getTransactions().isEmpty())
+                break;
+            pageToken = page.getNextToken();
 
-        while(it.hasNext()) {
             // Clear the screen and take the users input
             clear();
 
@@ -695,16 +705,16 @@ public final class MenuImplementation {
             // Print the top of the screen
             topFramePrint(topInstructions);
             // Print out the Transactions
-            for(int i = 0; i < 4 && it.hasNext(); ++i)
+            for(Transaction transaction : page.getTransactions())
             {
-                System.out.println(it.next().toString());
+                System.out.println(transaction.toString());
             }
             // Print the bottom of the screen
             bottomFramePrint(bottomInstructions);
 
             if(scan.nextLine().equalsIgnoreCase("exit"))
                 return;
-        }
+        } while(pageToken != null);
 
         // Instructions for the viewing the menu
         String[] instructions = {
@@ -773,17 +783,17 @@ public final class MenuImplementation {
 
         do {
             String[] phoneNumberForms = {"(xxx) xxx-xxxx"};
-            phoneNumber = ValidateInput("phone number", phoneNumberForms, new PhoneValidator());
+            phoneNumber = ValidateInput("phone number", phoneNumberForms, InputValidation::isPhoneNumber);
             String[] emailForms = {"example@email.com"};
-            email = ValidateInput("email", emailForms, new EmailValidator());
+            email = ValidateInput("email", emailForms, InputValidation::isEmail);
             String[] address1Forms = {"555 110th Ave NE"};
-            address1 = ValidateInput("address line (100 character limit)", address1Forms, new AddressValidator());
+            address1 = ValidateInput("address line (100 character limit)", address1Forms, InputValidation::isAddressLine1);
             String[] address2Forms = {"City Name"};
-            address2 = ValidateInput("city", address2Forms, new Address2Validator());
+            address2 = ValidateInput("city", address2Forms, InputValidation::isAddressLine2);
             String[] stateForms = {"two letter State form e.g. WA"};
-            state = ValidateInput("State(Territory)", stateForms, new StateValidator());
+            state = ValidateInput("State(Territory)", stateForms, InputValidation::isStateCode);
             String[] zipForms = {"98053" , "98053-7241"};
-            zipCode = ValidateInput("Zip-Code", zipForms, new ZipcodeValidator());
+            zipCode = ValidateInput("Zip-Code", zipForms, InputValidation::isZipCode);
 
 
             boolean isValid = false;
@@ -832,7 +842,7 @@ public final class MenuImplementation {
 
         do {
             String[] SSNForms = {"xxx-xx-xxxx"};
-            String SSN = ValidateInput("SSN", SSNForms, new SSNValidator());
+            String SSN = ValidateInput("SSN", SSNForms, InputValidation::isSSN);
             SSNHash = hash.getMessageDigest(SSN);
 
             boolean isValid = false;
@@ -869,7 +879,7 @@ public final class MenuImplementation {
 
         do {
             String[] usernameForms = {"of Only AlphaNumeric characters and only {_,., -} Special characters"};
-            username = ValidateInput("username", usernameForms, new UsernameValidator());
+            username = ValidateInput("username", usernameForms, InputValidation::isUsername);
 
             boolean isValid = false;
             do{
@@ -907,8 +917,6 @@ public final class MenuImplementation {
     static void inputPassword(User newUser) {
 
         String passHash = null;
-        PasswordValidator validator =new PasswordValidator();
-
 
         boolean confirmed = false;
         do {
@@ -923,7 +931,7 @@ public final class MenuImplementation {
                 System.out.print("Password: ");
                 password = scan.nextLine();
             }
-            if (!validator.validate(password)){
+            if (!InputValidation.isPassword(password)){
                 System.out.println("\nThat is not a valid format, please use the valid format\n");
                 continue;
             }
@@ -1042,8 +1050,7 @@ public final class MenuImplementation {
         String[] instructions = {
                 "Internal Account Transfer",
                 account.getAccountID(),
-                "Available Balance: " +
-                        NumberFormat.getCurrencyInstance(Locale.US).format(account.getBalance()),
+                "Available Balance: " + account.getBalance().format(),
                 "Select the one you wish to transfer money to"
         };
 
@@ -1098,18 +1105,18 @@ public final class MenuImplementation {
         // Acquire how much money to transfer
         System.out.print("Enter the amount you wish to transfer: ");
         String input = scan.nextLine();
-        while (!input.matches("(0|[1-9][0-9]{0,2})(,\\d{3})*(\\.\\d{2})?")) {
+        while (!InputValidation.isAmount(input)) {
             System.out.println("That is not a valid amount, Please enter an amount in the form of 5,432.10\n");
             System.out.print("Enter the amount: ");
             input = scan.nextLine();
         }
-        BigDecimal amountTransferred = new BigDecimal(input.replace(",",""));
+        Money amountTransferred = Money.parse(input.replace(",",""));
 
         // Confirm the transfer
         boolean isValid = false;
         do{
             System.out.println("\nTransfer amount: " +
-                    NumberFormat.getCurrencyInstance(Locale.US).format(amountTransferred));
+                    amountTransferred.format());
             System.out.println("Transfer From: " + account.getType().toString() + " " + account.getAccountID());
             System.out.println("Transfer To: " + accountTo);
             System.out.print("Confirm the Transfer? (Y/n): ");
@@ -1134,7 +1141,7 @@ public final class MenuImplementation {
             user.getAccounts().get(optionSelected).setBalance(user.getAccounts()
                     .get(optionSelected).getBalance().add(amountTransferred));
             System.out.println("You successfully transferred " +
-                    NumberFormat.getCurrencyInstance(Locale.US).format(amountTransferred) +
+                    amountTransferred.format() +
                     " from your account to the specified account.");
         } else  { // The Transfer was unsuccessful
             System.out.println("\nThe transaction was rejected, if you have enough funds, there could be a hold" +
@@ -1156,8 +1163,7 @@ public final class MenuImplementation {
         String[] instructions = {
                 "External Transfer from Account: ",
                 account.getAccountID(),
-                "Balance Available: " +
-                        NumberFormat.getCurrencyInstance(Locale.US).format(account.getBalance())
+                "Balance Available: " + account.getBalance().format()
         };
         framePrint(instructions);
 
@@ -1165,7 +1171,7 @@ public final class MenuImplementation {
         System.out.print("Input in the account ID: ");
         String input = scan.nextLine();
         input = input.toLowerCase(Locale.US);
-        while(!input.matches("[a-f0-9]{64}")) {
+        while(!InputValidation.isHexId(input)) {
             System.out.println("That is incorrect format, please input a user account in this bank's format");
             System.out.println("The format should look like " +
                     "631702663e53b9f1f2d925d3ec20dcc4d685491aae601df7626d15503c99a9b7");
@@ -1178,18 +1184,18 @@ public final class MenuImplementation {
         // Acquire how much money to transfer
         System.out.print("Enter the amount you wish to transfer: ");
         input = scan.nextLine();
-        while (!input.matches("(0|[1-9][0-9]{0,2})(,\\d{3})*(\\.\\d{2})?")) {
+        while (!InputValidation.isAmount(input)) {
             System.out.println("That is not a valid amount, Please enter an amount in the form of 5,432.10\n");
             System.out.print("Enter the amount: ");
             input = scan.nextLine();
         }
-        BigDecimal amountTransferred = new BigDecimal(input.replace(",",""));
+        Money amountTransferred = Money.parse(input.replace(",",""));
 
         // Confirm the transfer
         boolean isValid = false;
         do{
             System.out.println("\nTransfer amount: " +
-                    NumberFormat.getCurrencyInstance(Locale.US).format(amountTransferred));
+                    amountTransferred.format());
             System.out.println("Transfer From: " + account.getType().toString() + " " + account.getAccountID());
             System.out.println("Transfer To: " + accountTo);
             System.out.print("Confirm the Transfer? (Y/n): ");
@@ -1211,7 +1217,7 @@ public final class MenuImplementation {
                 account.getAccountID(), accountTo))){
             account.setBalance(account.getBalance().subtract(amountTransferred));
             System.out.println("You successfully transferred " +
-                    NumberFormat.getCurrencyInstance(Locale.US).format(amountTransferred) +
+                    amountTransferred.format() +
                     " from your account to the specified account.");
         } else  { // The Transfer was unsuccessful
             System.out.println("\nThe transaction was rejected, if you have enough funds, there could be a hold" +
@@ -1336,318 +1342,4 @@ public final class MenuImplementation {
 
         boolean validate(String input);
     }
-    /**
-     * Class implementing a command pattern that validates email addresses
-     */
-    static private class EmailValidator implements Validator {
-        /**
-         * Given a string validates that it is in proper from for email addresses
-         * @param email - the string in question
-         * @return - true if the string is in proper format, false otherwise
-         */
-        public boolean validate( String email) {
-
-            String[] parts = email.toLowerCase(Locale.US).split("@");
-
-            if(parts.length != 2)
-                return false;
-
-            // Check the prefix
-            boolean wasSpecial = false;
-            for(int i = 0; i < parts[0].length(); ++i)
-            {
-                if(parts[0].charAt(i) == '.' ||
-                        parts[0].charAt(i) == '-' ||
-                        parts[0].charAt(i) == '_') {
-                    if(wasSpecial)
-                        return false;
-                    wasSpecial = true;
-                }
-                else if((parts[0].charAt(i) <= 'z' || parts[0].charAt(i) >= 'a') &&
-                        (parts[0].charAt(i) <= '9' || parts[0].charAt(i) >= '0'))
-                    wasSpecial = false;
-                else
-                    return false;
-            }
-            if(wasSpecial) return false;
-
-            // Check the domain
-            parts = parts[1].split("\\.");
-            if(parts.length != 2)
-                return false;
-
-            for(int i = 0; i < 2; ++i) {
-                for (int j = 1; j < parts[i].length(); ++j) {
-                    if (parts[i].charAt(j) > 'z' || parts[i].charAt(j) < 'a')
-                        return false;
-                }
-            }
-
-            return email.indexOf(email.length() - 1) != '.';
-        }
-    }
-    /**
-     * Class implementing a command pattern that validates addresses
-     */
-    static private class AddressValidator implements Validator {
-        /**
-         * Given a string validates that it is in proper form
-         * @param address the string in question
-         * @return - returns true if
-         */
-        public boolean validate( String address) {
-            return address.length() < 100 && address.length() > 3;
-        }
-    }
-    /**
-     * Class implementing a command pattern that validates addresses
-     */
-    static private class Address2Validator implements Validator {
-        /**
-         * Given a string validates that it is in proper form
-         * @param address the string in question
-         * @return - returns true if
-         */
-        public boolean validate( String address) {
-            return address.length() < 100;
-        }
-
-    }
-    /**
-     * A Validator class used in the command pattern to validate zipcodestrings
-     */
-    static private class ZipcodeValidator implements Validator {
-
-
-        /**
-         * Given Given a string, determines whether it is in the correct format for zipcodes or not
-         * @param zipCode - The string to look at
-         * @return - Returns true if the string is in the right format, false otherwise
-         */
-        public boolean validate( String zipCode) {
-
-            String[] parts = zipCode.toLowerCase(Locale.US).split("-");
-            if(parts.length > 2)
-                return false;
-
-            if(parts[0].length() != 5)
-                return false;
-            for(int i = 0; i < parts[0].length(); ++i) {
-                if(parts[0].charAt(i) > '9' || parts[0].charAt(i) < '0')
-                    return false;
-            }
-
-            if(parts.length > 1) {
-                if (parts[1].length() != 4)
-                    return false;
-                for (int i = 0; i < parts[1].length(); ++i) {
-                    if (parts[1].charAt(i) > '9' || parts[1].charAt(i) < '0')
-                        return false;
-                }
-            }
-
-            return true;
-        }
-    }
-    /**
-     * Class that uses the command pattern that implements validation of State Codes
-     */
-    static private class StateValidator implements Validator {
-        /**
-         * Given a string determines if the string is a proper State/Territory code
-         * @param state - The state in question
-         * @return - Returns true if it is in a proper form, false otherwise
-         */
-        public boolean validate( String state) {
-            switch (state) {
-                case "AL":
-                case "AK":
-                case "AZ":
-                case "AR":
-                case "AS":
-                case "CA":
-                case "CO":
-                case "CT":
-                case "DE":
-                case "DC":
-                case "FL":
-                case "GA":
-                case "GU":
-                case "HI":
-                case "ID":
-                case "IL":
-                case "IN":
-                case "IA":
-                case "KS":
-                case "KY":
-                case "LA":
-                case "ME":
-                case "MD":
-                case "MA":
-                case "MI":
-                case "MN":
-                case "MS":
-                case "MO":
-                case "MT":
-                case "NE":
-                case "NV":
-                case "NH":
-                case "NJ":
-                case "NM":
-                case "NY":
-                case "NC":
-                case "ND":
-                case "CM":
-                case "OH":
-                case "OK":
-                case "OR":
-                case "PA":
-                case "PR":
-                case "RI":
-                case "SC":
-                case "SD":
-                case "TN":
-                case "TX":
-                case "TT":
-                case "UT":
-                case "VT":
-                case "VA":
-                case "VI":
-                case "WA":
-                case "WV":
-                case "WI":
-                case "WY":
-                    return true;
-                default:
-                    return false;
-            }
-        }
-    }
-    /**
-     * A validator used to determine if a string is a propper SSN
-     */
-    static private class SSNValidator implements Validator {
-        /**
-         * Given a String tells if it is a proper SSN
-         * @param SSN - The SSN to check
-         * @return - Returns true if it is a proper SSN, false otherwise
-         */
-        public boolean validate( String SSN) {
-
-            String[] parts = SSN.split("-");
-            if(parts.length != 3)
-                return false;
-
-            for(int i = 0; i < 3; ++i)
-            {
-                try {
-                    Integer.parseInt(parts[i]);
-                } catch (NumberFormatException e)
-                {
-                    return false;
-                }
-
-            }
-
-            return true;
-        }
-    }
-    /**
-     * Given a string tells you whether it is in the correct form for a username or not
-     */
-    static private class UsernameValidator implements Validator {
-        /**
-         * Given a String tells whether it is in the correct format or not
-         * @param username - The username in question
-         * @return - Returns true if the username is in the correct format, false otherwise
-         */
-        public boolean validate( String username) {
-
-            if(username.length() > 25)
-                return false;
-
-            String usernameLower = username.toLowerCase(Locale.US);
-            for(int i = 0; i < username.length(); ++i)
-            {
-                char at = usernameLower.charAt(i);
-                if((at > 'z' || at < 'a') && (at > '9' || at < '0') &&
-                        at != '.' && at != '-' && at != '_')
-                    return false;
-            }
-
-            return true;
-        }
-    }
-    /**
-     * Class that validates whether a phone number is in the correct form or not
-     */
-    static private class PhoneValidator implements Validator {
-
-        /**
-         * Given a phone number returns true if it is in the correct format
-         * @param phoneNumber - The Phone number to test
-         * @return Returns true if the phone number is correctly formatted, false otherwise
-         */
-        public boolean validate( String phoneNumber) {
-            if(phoneNumber.length() != 14)
-                return false;
-            if(phoneNumber.charAt(0) != '(')
-                return false;
-            if(phoneNumber.charAt(4) != ')')
-                return false;
-            if(phoneNumber.charAt(5) != ' ')
-                return false;
-            if(phoneNumber.charAt(9) != '-')
-                return false;
-            try{
-                Integer.parseInt(phoneNumber.substring(1,4));
-                Integer.parseInt(phoneNumber.substring(6,9));
-                Integer.parseInt(phoneNumber.substring(10,14));
-            } catch (NumberFormatException e) {
-                return false;
-            }
-
-            return true;
-        }
-
-    }
-    /**
-     * A class that validates whether a password is in the correct form or not
-     */
-    static private class PasswordValidator implements Validator {
-
-        /**
-         * Given a password as a string, returns whether the password is in the correct from or not
-         * @param password - The password to test
-         * @return Returns True if the password is correctly formatted
-         */
-        public boolean validate(String password) {
-
-            if(password.length() < 8)
-                return false;
-
-            boolean hasSpecial = false;
-            boolean hasCapital = false;
-            boolean hasLowercase = false;
-            boolean hasNumber =false;
-
-            for(int i = 0; i < password.length(); ++i){
-                char at = password.charAt(i);
-                if(at >= 'a' && at <= 'z')
-                    hasLowercase = true;
-                else if (at >= 'A' && at <= 'Z')
-                    hasCapital = true;
-                else if (at >= '0' && at <= '9')
-                    hasNumber = true;
-                else if(at == '!' || at == '@' || at == '#' ||
-                        at == '$' || at == '%' || at == '_')
-                    hasSpecial = true;
-                else
-                    return false;
-            }
-
-
-            return hasSpecial && hasCapital && hasLowercase && hasNumber;
-        }
-    }
 }
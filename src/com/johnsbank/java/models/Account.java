@@ -1,9 +1,10 @@
 package com.johnsbank.java.models;
 
+import com.johnsbank.java.utilities.Lazy;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
 
-import java.math.BigDecimal;
+import java.util.function.Supplier;
 
 public class Account {
 
@@ -13,10 +14,25 @@ public class Account {
 
     private String accountID;
     private AccountType type;
-    private MyArrayList<User> owners;
-    private MyLinkedList<Transaction> transactions;
-    private BigDecimal balance;
+    private Lazy<MyArrayList<User>> owners;               // Loaded on first use when given a loader
+    private Lazy<MyLinkedList<Transaction>> transactions; // Loaded on first use when given a loader
+    private Money balance;
     private boolean active;
+    private long version;                                 // Bumped by every change to the row
+
+    public Account() {}
+
+    /**
+     * Copies the columns of another account, the owners and transactions are not copied
+     * @param other - The account to copy
+     */
+    public Account(Account other) {
+        this.accountID = other.accountID;
+        this.type = other.type;
+        this.balance = other.balance;
+        this.active = other.active;
+        this.version = other.version;
+    }
 
     public String getAccountID() {
         return accountID;
@@ -35,26 +51,42 @@ public class Account {
     }
 
     public MyArrayList<User> getOwners() {
-        return owners;
+        return owners == null ? null : owners.get();
     }
 
     public void setOwners(MyArrayList<User> owners) {
-        this.owners = owners;
+        this.owners = Lazy.of(owners);
+    }
+
+    /**
+     * Sets where the owners are loaded from the first time they are asked for
+     * @param loader - Loads the owners of the account
+     */
+    public void setOwnersLoader(Supplier<MyArrayList<User>> loader) {
+        this.owners = new Lazy<>(loader);
     }
 
     public MyLinkedList<Transaction> getTransactions() {
-        return transactions;
+        return transactions == null ? null : transactions.get();
     }
 
     public void setTransactions(MyLinkedList<Transaction> transactions) {
-        this.transactions = transactions;
+        this.transactions = Lazy.of(transactions);
+    }
+
+    /**
+     * Sets where the transactions are loaded from the first time they are asked for
+     * @param loader - Loads the transactions of the account
+     */
+    public void setTransactionsLoader(Supplier<MyLinkedList<Transaction>> loader) {
+        this.transactions = new Lazy<>(loader);
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
@@ -65,4 +97,12 @@ public class Account {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,185 @@
+package com.johnsbank.java.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of US dollars held as a whole number of cents. The database stores money as NUMERIC(20, 2),
+ * every amount the bank handles fits in a long of cents, and working in cents avoids the work BigDecimal
+ * does on every operation. Arithmetic that would overflow throws an ArithmeticException rather than wrapping
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+    public static final Money ONE = new Money(100);
+    public static final Money TEN = new Money(1000);
+
+    private static final long CENTS_PER_DOLLAR = 100;
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Returns the given count of cents as money
+     * @param cents - The cents, may be negative
+     * @return - The amount of money
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Returns the given whole dollars as money
+     * @param dollars - The dollars, may be negative
+     * @return - The amount of money
+     * @throws ArithmeticException - if the dollars can't be held as cents
+     */
+    public static Money of(long dollars) {
+        return ofCents(Math.multiplyExact(dollars, CENTS_PER_DOLLAR));
+    }
+
+    /**
+     * Converts an amount read from the database or given by a caller
+     * @param amount - The amount, with no more than two decimal places
+     * @return - The amount of money, or null if the amount was null
+     * @throws ArithmeticException - if the amount has fractions of a cent or can't be held as cents
+     */
+    public static Money valueOf(BigDecimal amount) {
+        if(amount == null)
+            return null;
+        return ofCents(amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Reads an amount such as "12", "-3.5" or "1234.56". Grouping commas are not accepted
+     * @param amount - The amount with an optional '-' and at most two decimal places
+     * @return - The amount of money
+     * @throws NumberFormatException - if the amount is not in the correct form or can't be held as cents
+     */
+    public static Money parse(CharSequence amount) {
+        if(amount == null || amount.length() == 0)
+            throw new NumberFormatException("No amount was given");
+
+        int length = amount.length();
+        int i = 0;
+        boolean negative = amount.charAt(0) == '-';
+        if(negative)
+            ++i;
+
+        try {
+            long dollars = 0;
+            int start = i;
+            for(; i < length && amount.charAt(i) != '.'; ++i)
+                dollars = Math.addExact(Math.multiplyExact(dollars, 10), digit(amount, i));
+            if(i == start)
+                throw new NumberFormatException("The amount \"" + amount + "\" has no dollars");
+
+            long cents = 0;
+            if(i < length) { // the cents, after the '.'
+                int places = length - i - 1;
+                if(places < 1 || places > 2)
+                    throw new NumberFormatException("The amount \"" + amount + "\" must have one or two decimals");
+                cents = digit(amount, i + 1) * 10L + (places == 2 ? digit(amount, i + 2) : 0);
+            }
+
+            long total = Math.addExact(Math.multiplyExact(dollars, CENTS_PER_DOLLAR), cents);
+            return ofCents(negative ? -total : total);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("The amount \"" + amount + "\" is too large");
+        }
+    }
+
+    private static int digit(CharSequence amount, int index) {
+        char at = amount.charAt(index);
+        if(at < '0' || at > '9')
+            throw new NumberFormatException("The amount \"" + amount + "\" has a bad character at " + index);
+        return at - '0';
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Returns the amount in the form the database stores
+     * @return - The amount with a scale of two
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public Money add(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money subtract(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    /**
+     * Returns -1, 0 or 1 as the amount is negative, zero or positive
+     */
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    /**
+     * Writes the amount as dollars and cents in the form the bank shows users, such as "$1,234.56" or "-$0.50"
+     * @return - The formatted amount
+     */
+    public String format() {
+        // appended from the end, so the digits are written in reverse then flipped
+        StringBuilder retVal = new StringBuilder(24);
+        long remaining = cents == Long.MIN_VALUE ? cents : Math.abs(cents); // MIN_VALUE has no positive form
+        retVal.append(digitOf(remaining % 10)).append(digitOf(remaining / 10 % 10)).append('.');
+        remaining /= CENTS_PER_DOLLAR;
+        int written = 0;
+        do {
+            if(written > 0 && written % 3 == 0)
+                retVal.append(',');
+            retVal.append(digitOf(remaining % 10));
+            remaining /= 10;
+            ++written;
+        } while(remaining != 0);
+        retVal.append('$');
+        if(cents < 0)
+            retVal.append('-');
+        return retVal.reverse().toString();
+    }
+
+    private static char digitOf(long value) {
+        return (char) ('0' + Math.abs(value));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Writes the amount in the plain form parse reads, such as "-1234.56"
+     */
+    @Override
+    public String toString() {
+        long remainder = Math.abs(cents % CENTS_PER_DOLLAR);
+        return (cents < 0 && cents > -CENTS_PER_DOLLAR ? "-" : "") + cents / CENTS_PER_DOLLAR + '.' +
+                (remainder < 10 ? "0" : "") + remainder;
+    }
+}
@@ -1,35 +1,56 @@
 package com.johnsbank.java.models;
 
-import com.johnsbank.java.utilities.HashGenerator;
+import com.johnsbank.java.utilities.IdGenerator;
+import com.johnsbank.java.utilities.TimeOrderedIdGenerator;
 
-import java.math.BigDecimal;
 import java.sql.Date;
-import java.text.NumberFormat;
+import java.sql.Timestamp;
 import java.util.Arrays;
-import java.util.Locale;
 
 public class Transaction {
     private String transactionID;
     private Date date;
-    private BigDecimal amount;
+    private Money amount;
     private String from;
     private String to;
+    private Timestamp madeAt;   // When the database recorded the transaction
+    private long sequence;      // Orders transactions recorded at the same instant
+
+    // Makes the ids of new transactions
+    private static volatile IdGenerator idGenerator = TimeOrderedIdGenerator.getInstance();
 
     public Transaction() {}
 
-    public Transaction(Date date, BigDecimal amount, String from, String to) {
-        String ID = System.currentTimeMillis() + amount.toString();
-        if(from != null)
-            ID += from;
-        if(to != null);
-            ID += to;
-        transactionID = HashGenerator.getInstance().getMessageDigest(ID);
+    public Transaction(Date date, Money amount, String from, String to) {
+        transactionID = idGenerator.nextHex();
         this.amount = amount;
         this.date = date;
         this.from = from;
         this.to = to;
     }
 
+    /**
+     * Copies every column of another transaction, including when it was recorded and its place in that instant
+     * @param other - The transaction to copy
+     */
+    public Transaction(Transaction other) {
+        this.transactionID = other.transactionID;
+        this.date = other.date;
+        this.amount = other.amount;
+        this.from = other.from;
+        this.to = other.to;
+        this.madeAt = other.madeAt;
+        this.sequence = other.sequence;
+    }
+
+    /**
+     * Replaces what makes the ids of new transactions
+     * @param generator - The generator to use from now on
+     */
+    public static void setIdGenerator(IdGenerator generator) {
+        idGenerator = generator;
+    }
+
     public String getTransactionID() {
         return transactionID;
     }
@@ -62,11 +83,27 @@ public class Transaction {
         this.to = to;
     }
 
-    public BigDecimal getAmount() {
+    public Timestamp getMadeAt() {
+        return madeAt;
+    }
+
+    public void setMadeAt(Timestamp madeAt) {
+        this.madeAt = madeAt;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(BigDecimal amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -90,7 +127,7 @@ public class Transaction {
             retVal.append("Transfer");
         retVal.append(spaces.substring(0, 75-retVal.length()));
         retVal.append("****|\n|****  Amount: ");
-        retVal.append(NumberFormat.getCurrencyInstance(Locale.US).format(amount));
+        retVal.append(amount.format());
         retVal.append(spaces.substring(0, 75-(retVal.length()-81*++countLines)));
         retVal.append("****|\n");
         if(from != null){
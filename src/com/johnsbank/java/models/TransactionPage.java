@@ -0,0 +1,33 @@
+package com.johnsbank.java.models;
+
+import com.johnsbank.java.utilities.MyArrayList;
+
+/**
+ * One page of a transaction history, newest first, along with the token used to fetch the page after it
+ */
+public class TransactionPage {
+
+    private final MyArrayList<Transaction> transactions;
+    private final String nextToken;
+
+    public TransactionPage(MyArrayList<Transaction> transactions, String nextToken) {
+        this.transactions = transactions;
+        this.nextToken = nextToken;
+    }
+
+    public MyArrayList<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Returns the token that continues the history after this page
+     * @return - The continuation token, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
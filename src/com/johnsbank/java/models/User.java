@@ -1,8 +1,11 @@
 package com.johnsbank.java.models;
 
+import com.johnsbank.java.utilities.Lazy;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
 
+import java.util.function.Supplier;
+
 public class User {
 
     private String username;
@@ -17,8 +20,28 @@ public class User {
     private String SSN_Hash;
     private String pass_Hash;
 
-    private MyArrayList<Account> accounts;
-    private MyLinkedList<Transaction> transactions;
+    private Lazy<MyArrayList<Account>> accounts;          // Loaded on first use when given a loader
+    private Lazy<MyLinkedList<Transaction>> transactions; // Loaded on first use when given a loader
+
+    public User() {}
+
+    /**
+     * Copies the columns of another user, the accounts and transactions are not copied
+     * @param other - The user to copy
+     */
+    public User(User other) {
+        this.username = other.username;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.phoneNumber = other.phoneNumber;
+        this.email = other.email;
+        this.addressLine1 = other.addressLine1;
+        this.addressLine2 = other.addressLine2;
+        this.state = other.state;
+        this.zipCode = other.zipCode;
+        this.SSN_Hash = other.SSN_Hash;
+        this.pass_Hash = other.pass_Hash;
+    }
 
     public String getUsername() {
         return username;
@@ -109,19 +132,35 @@ public class User {
     }
 
     public MyArrayList<Account> getAccounts() {
-        return accounts;
+        return accounts == null ? null : accounts.get();
     }
 
     public void setAccounts(MyArrayList<Account> accounts) {
-        this.accounts = accounts;
+        this.accounts = Lazy.of(accounts);
+    }
+
+    /**
+     * Sets where the accounts are loaded from the first time they are asked for
+     * @param loader - Loads the accounts of the user
+     */
+    public void setAccountsLoader(Supplier<MyArrayList<Account>> loader) {
+        this.accounts = new Lazy<>(loader);
     }
 
     public MyLinkedList<Transaction> getTransactions() {
-        return transactions;
+        return transactions == null ? null : transactions.get();
     }
 
     public void setTransactions(MyLinkedList<Transaction> transactions) {
-        this.transactions = transactions;
+        this.transactions = Lazy.of(transactions);
+    }
+
+    /**
+     * Sets where the transactions are loaded from the first time they are asked for
+     * @param loader - Loads the transactions of the user
+     */
+    public void setTransactionsLoader(Supplier<MyLinkedList<Transaction>> loader) {
+        this.transactions = new Lazy<>(loader);
     }
 
 }
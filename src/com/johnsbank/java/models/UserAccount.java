@@ -0,0 +1,33 @@
+package com.johnsbank.java.models;
+
+/**
+ * A link between a user and an account they own
+ */
+public class UserAccount {
+
+    private String username;
+    private String accountID;
+
+    public UserAccount() {}
+
+    public UserAccount(String username, String accountID) {
+        this.username = username;
+        this.accountID = accountID;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getAccountID() {
+        return accountID;
+    }
+
+    public void setAccountID(String accountID) {
+        this.accountID = accountID;
+    }
+}
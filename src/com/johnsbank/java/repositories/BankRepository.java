@@ -2,40 +2,63 @@ package com.johnsbank.java.repositories;
 
 import com.johnsbank.java.models.Account;
 import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.models.UserAccount;
+import com.johnsbank.java.utilities.BatchResult;
+import com.johnsbank.java.utilities.CloseableIterator;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
+import java.sql.Timestamp;
 
 public interface BankRepository {
 
     // CRUD Operations on Users
     public User addUser(User newUser) ;
+    public BatchResult addUsers(Iterable<User> newUsers);
     public User getUser(String username) throws ResourceNotFoundException;
     public User updateUser(User change) throws ResourceNotFoundException;
     public User deleteUser(String username) throws ResourceNotFoundException;
     public MyArrayList<User> getAllUsers();
+    public CloseableIterator<User> streamAllUsers();
     public MyArrayList<User> getAllOwners(Account account) throws ResourceNotFoundException;
 
     // CRUD Operations on Accounts
     public Account addAccount(Account newAccount);
+    public BatchResult addAccounts(Iterable<Account> newAccounts);
     public Account getAccount(String accountId) throws ResourceNotFoundException;
     public Account updateAccount(Account change) throws ResourceNotFoundException;
+    public Account updateAccount(Account change, Transaction record) throws ResourceNotFoundException;
     public Account deleteAccount(String accountId) throws ResourceNotFoundException;
     public MyArrayList<Account> getAllAccounts();
+    public CloseableIterator<Account> streamAllAccounts();
     public MyArrayList<Account> getAllAccounts(User user) throws ResourceNotFoundException;
 
     // CRUD operations on Transactions
     public Transaction addTransaction(Transaction newTransaction);
+    public BatchResult addTransactions(Iterable<Transaction> newTransactions);
+    public Transaction transfer(Transaction transfer);
+    public BatchResult applyTransactions(Iterable<Transaction> entries);
     public Transaction getTransaction(String transactionId) throws ResourceNotFoundException;
     public Transaction updateTransaction(Transaction change) throws ResourceNotFoundException;
     public Transaction deleteTransaction(String transactionId) throws ResourceNotFoundException;
     public MyArrayList<Transaction> getAllTransactions();
+    public CloseableIterator<Transaction> streamAllTransactions();
     public MyLinkedList<Transaction> getAllTransactions(User user) throws ResourceNotFoundException;
     public MyLinkedList<Transaction> getAllTransactions(Account account) throws ResourceNotFoundException;
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(User user) throws ResourceNotFoundException;
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(Account account)
+            throws ResourceNotFoundException;
+    public TransactionPage getTransactionPage(User user, String continuationToken, int pageSize)
+            throws ResourceNotFoundException;
+    public TransactionPage getTransactionPage(Account account, String continuationToken, int pageSize)
+            throws ResourceNotFoundException;
 
     // CRUD operations on User Accounts
     public boolean addUserAccount(String username, String accountId);
+    public MyArrayList<UserAccount> getAllUserAccounts();
     public boolean deleteUserAccount(String username, String accountId) throws ResourceNotFoundException;
 
     public boolean isConnected();
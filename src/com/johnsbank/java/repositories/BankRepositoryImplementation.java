@@ -1,17 +1,29 @@
 package com.johnsbank.java.repositories;
 
 import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
 import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.models.UserAccount;
+import com.johnsbank.java.utilities.BatchResult;
+import com.johnsbank.java.utilities.CloseableIterator;
+import com.johnsbank.java.utilities.Hex;
 import com.johnsbank.java.utilities.JDBCConnection;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
+import com.johnsbank.java.utilities.OptimisticLockException;
+import com.johnsbank.java.utilities.QueryExecutor;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Comparator;
 
 /**
  * The Repository Layer of our application - handles all communication directly to and from the database
@@ -20,8 +32,12 @@ public class BankRepositoryImplementation implements BankRepository{
 
     private static final BankRepositoryImplementation instance = new BankRepositoryImplementation();
 
-    // The Connection we will use for our Communication to the Database
-    Connection connection = JDBCConnection.getInstance().getConnection();
+    // Runs our queries and owns the statements and result sets they open
+    private final QueryExecutor executor = QueryExecutor.getInstance();
+    // How many rows the bulk add methods send to the database at once
+    private volatile int batchSize = 500;
+    // How many rows the streaming readers fetch from the database at a time
+    private volatile int fetchSize = 1000;
 
     private BankRepositoryImplementation() {/* Prevents anyone from instantiating */}
 
@@ -39,31 +55,27 @@ public class BankRepositoryImplementation implements BankRepository{
         String sql = "INSERT INTO \"User_Data\" VALUES (?,?,?,?,?,?,?,?,?,?,?) RETURNING *";
 
         try {
-            PreparedStatement ps = connection.prepareStatement(sql);
-
-            // Set Values
-            ps.setString(1, newUser.getUsername());
-            ps.setString(2, newUser.getFirstName());
-            ps.setString(3, newUser.getLastName());
-            ps.setString(4, newUser.getPhoneNumber());
-            ps.setString(5, newUser.getEmail());
-            ps.setString(6, newUser.getAddressLine1());
-            ps.setString(7, newUser.getAddressLine2());
-            ps.setString(8, newUser.getState());
-            ps.setString(9, newUser.getZipCode());
-            ps.setString(10, newUser.getSSN_Hash());
-            ps.setString(11, newUser.getPass_Hash());
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next()){
-                return buildUser(rs);
-            }
+            return executor.queryOne(sql, ps -> bindUser(ps, newUser), this::buildUser);
         } catch (SQLException e) {
             throw new RuntimeException("Could not add a User to the Database!", e);
         }
+    }
 
-        return null;
+    /**
+     * Adds many users to the database, sending them in batches
+     * @param newUsers - The users to add
+     * @return - The outcome of each user in the order they were given
+     */
+    @Override
+    public BatchResult addUsers(Iterable<User> newUsers) {
+
+        String sql = "INSERT INTO \"User_Data\" VALUES (?,?,?,?,?,?,?,?,?,?,?)";
+
+        try {
+            return executor.batch(sql, newUsers, this::bindUser, batchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not add the Users to the Database!", e);
+        }
     }
 
     /**
@@ -76,24 +88,18 @@ public class BankRepositoryImplementation implements BankRepository{
     public User getUser(String username) throws ResourceNotFoundException {
 
         String query = "SELECT * FROM \"User_Data\" WHERE \"Username\" = ?";
+        User retVal;
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Set Values for any Placeholders
-            ps.setString(1, username);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next()){
-                return buildUser(rs);
-            }
+            retVal = executor.queryOne(query, ps -> ps.setString(1, username), this::buildUser);
         } catch (SQLException e)
         {
             throw new RuntimeException("Could not get user from Database!",e);
         }
 
-        throw new ResourceNotFoundException("Could not Locate User in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("Could not Locate User in Database!");
+        return retVal;
     }
 
     /**
@@ -108,32 +114,30 @@ public class BankRepositoryImplementation implements BankRepository{
         String sql = "UPDATE \"User_Data\" set \"First_Name\"=?, \"Last_Name\"=?, \"Phone_Number\"=?," +
                 " \"Email\"=?, \"Address_Line_1\"=?, \"Address_Line_2\"=?, \"State\"=?, \"Zip_Code\"=?, " +
                 "\"SSN_Hash\"=?, \"Pass_Hash\"=? WHERE \"Username\" = ? RETURNING *";
-        try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-
-            // Set Values
-            ps.setString(1, change.getFirstName());
-            ps.setString(2, change.getLastName());
-            ps.setString(3, change.getPhoneNumber());
-            ps.setString(4, change.getEmail());
-            ps.setString(5, change.getAddressLine1());
-            ps.setString(6, change.getAddressLine2());
-            ps.setString(7, change.getState());
-            ps.setString(8, change.getZipCode());
-            ps.setString(9, change.getSSN_Hash());
-            ps.setString(10, change.getPass_Hash());
-            ps.setString(11, change.getUsername());
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next())
-                return buildUser(rs);
+        User retVal;
 
+        try{
+            retVal = executor.queryOne(sql, ps -> {
+                // Set Values
+                ps.setString(1, change.getFirstName());
+                ps.setString(2, change.getLastName());
+                ps.setString(3, change.getPhoneNumber());
+                ps.setString(4, change.getEmail());
+                ps.setString(5, change.getAddressLine1());
+                ps.setString(6, change.getAddressLine2());
+                ps.setString(7, change.getState());
+                ps.setString(8, change.getZipCode());
+                ps.setString(9, change.getSSN_Hash());
+                ps.setString(10, change.getPass_Hash());
+                ps.setString(11, change.getUsername());
+            }, this::buildUser);
         } catch (SQLException e) {
             throw new RuntimeException("Could not update user from Database!",e);
         }
 
-        throw new ResourceNotFoundException("The user could not be found in the database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("The user could not be found in the database!");
+        return retVal;
     }
 
     /**
@@ -146,21 +150,17 @@ public class BankRepositoryImplementation implements BankRepository{
     public User deleteUser(String username) throws ResourceNotFoundException {
 
         String sql = "DELETE FROM \"User_Data\" WHERE \"Username\" = ? RETURNING *";
+        User retVal;
 
         try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, username);
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next())
-                return buildUser(rs);
-
+            retVal = executor.queryOne(sql, ps -> ps.setString(1, username), this::buildUser);
         }catch (SQLException e) {
             throw new RuntimeException("Could not delete user!", e);
         }
 
-        throw new ResourceNotFoundException("User Not Found in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("User Not Found in Database!");
+        return retVal;
     }
 
     /**
@@ -174,15 +174,7 @@ public class BankRepositoryImplementation implements BankRepository{
         MyArrayList<User> users = new MyArrayList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                users.add(buildUser(rs));
-            }
-
+            executor.query(query, null, this::buildUser, users::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -191,6 +183,23 @@ public class BankRepositoryImplementation implements BankRepository{
         return users;
     }
 
+    /**
+     * Returns every user, reading them from the database a few at a time as they are iterated over.
+     * The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the users
+     */
+    @Override
+    public CloseableIterator<User> streamAllUsers() {
+
+        String query = "SELECT * FROM \"User_Data\"";
+
+        try {
+            return executor.stream(query, null, this::buildUser, fetchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not stream users from Database!", e);
+        }
+    }
+
     /**
      * Given an account, returns a custom ArrayList of all its owners
      * @param account - The account to get the owners from
@@ -203,16 +212,8 @@ public class BankRepositoryImplementation implements BankRepository{
         MyArrayList<User> users = new MyArrayList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            ps.setString(1, account.getAccountID());
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                users.add(buildUser(rs));
-            }
-
+            executor.query(query, ps -> ps.setBytes(1, Hex.decode(account.getAccountID())),
+                    this::buildUser, users::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -232,24 +233,27 @@ public class BankRepositoryImplementation implements BankRepository{
         String sql = "INSERT INTO \"Account_Data\" VALUES (?,?,?,?) RETURNING *";
 
         try {
-            PreparedStatement ps = connection.prepareStatement(sql);
+            return executor.queryOne(sql, ps -> bindAccount(ps, newAccount), this::buildAccount);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not add an Account to the Database!", e);
+        }
+    }
 
-            // Set Values
-            ps.setString(1, newAccount.getAccountID());
-            ps.setBigDecimal(2, newAccount.getBalance());
-            ps.setString(3, newAccount.getType().toString());
-            ps.setBoolean(4, newAccount.isActive());
+    /**
+     * Adds many accounts to the database, sending them in batches
+     * @param newAccounts - The accounts to add
+     * @return - The outcome of each account in the order they were given
+     */
+    @Override
+    public BatchResult addAccounts(Iterable<Account> newAccounts) {
 
-            ResultSet rs = ps.executeQuery();
+        String sql = "INSERT INTO \"Account_Data\" VALUES (?,?,?,?)";
 
-            if(rs.next()){
-                return buildAccount(rs);
-            }
+        try {
+            return executor.batch(sql, newAccounts, this::bindAccount, batchSize);
         } catch (SQLException e) {
-            throw new RuntimeException("Could not add an Account to the Database!", e);
+            throw new RuntimeException("Could not add the Accounts to the Database!", e);
         }
-
-        return null;
     }
 
     /**
@@ -261,55 +265,96 @@ public class BankRepositoryImplementation implements BankRepository{
     @Override
     public Account getAccount(String accountId) throws ResourceNotFoundException {
         String query = "SELECT * FROM \"Account_Data\" WHERE \"Account_ID\" = ?";
+        byte[] id = decodeId(accountId);
+        Account retVal;
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Set Values for any Placeholders
-            ps.setString(1, accountId);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next()){
-                return buildAccount(rs);
-            }
+            retVal = executor.queryOne(query, ps -> ps.setBytes(1, id), this::buildAccount);
         } catch (SQLException e)
         {
             throw new RuntimeException("Could not get account from Database!",e);
         }
 
-        throw new ResourceNotFoundException("Could not Locate Account in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("Could not Locate Account in Database!");
+        return retVal;
     }
 
     /**
-     * Given an Account to change, changes the account in the database
+     * Given an Account to change, changes the account in the database. The change is only made if the account
+     * is still at the version it was read at, otherwise another change happened in between and would be lost
      * @param change - the account holding all the changes needed
-     * @return - Returns the account changed
+     * @return - Returns the account changed, holding its new version
      * @throws ResourceNotFoundException
+     * @throws OptimisticLockException - if the account was changed since it was read
      */
     @Override
     public Account updateAccount(Account change) throws ResourceNotFoundException {
-        String sql = "UPDATE \"Account_Data\" set \"Balance\"=?, \"Type\"=?, \"Active\"=? " +
-                "WHERE \"Account_ID\" = ? RETURNING *";
-        try{
-            PreparedStatement ps = connection.prepareStatement(sql);
+        String sql = "UPDATE \"Account_Data\" set \"Balance\"=?, \"Type\"=?, \"Active\"=?, " +
+                "\"Version\" = \"Version\" + 1 WHERE \"Account_ID\" = ? AND \"Version\" = ? RETURNING *";
+        byte[] id = decodeId(change.getAccountID());
+        Account retVal;
 
-            // Set Values
-            ps.setBigDecimal(1, change.getBalance());
-            ps.setString(2, change.getType().toString());
-            ps.setBoolean(3, change.isActive());
-            ps.setString(4, change.getAccountID());
+        try{
+            retVal = executor.queryOne(sql, ps -> bindAccountChange(ps, change, id), this::buildAccount);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not update account from Database!",e);
+        }
 
-            ResultSet rs = ps.executeQuery();
+        if(retVal == null)
+            throw accountChangeFailed(change);
+        return retVal;
+    }
 
-            if(rs.next())
-                return buildAccount(rs);
+    /**
+     * Changes an account and records the transaction that caused the change in a single statement,
+     * so the balance and the ledger can never disagree. The account is compared on its version as in
+     * updateAccount and neither is written if it was changed since it was read
+     * @param change - the account holding all the changes needed
+     * @param record - the transaction to record alongside the change
+     * @return - Returns the account changed, holding its new version
+     * @throws ResourceNotFoundException
+     * @throws OptimisticLockException - if the account was changed since it was read
+     */
+    @Override
+    public Account updateAccount(Account change, Transaction record) throws ResourceNotFoundException {
+        String sql = "WITH \"Changed\" AS (" +
+                "UPDATE \"Account_Data\" set \"Balance\"=?, \"Type\"=?, \"Active\"=?, " +
+                "\"Version\" = \"Version\" + 1 WHERE \"Account_ID\" = ? AND \"Version\" = ? RETURNING *" +
+                "), \"Recorded\" AS (" +
+                "INSERT INTO \"Transactions\" SELECT ?, ?, ?, ?, ? FROM \"Changed\"" +
+                ") SELECT * FROM \"Changed\"";
+        byte[] id = decodeId(change.getAccountID());
+        Account retVal;
 
+        try{
+            retVal = executor.queryOne(sql, ps -> {
+                bindAccountChange(ps, change, id);
+                ps.setBytes(6, Hex.decode(record.getTransactionID()));
+                ps.setDate(7, record.getDate());
+                setMoney(ps, 8, record.getAmount());
+                ps.setBytes(9, Hex.decode(record.getFrom()));
+                ps.setBytes(10, Hex.decode(record.getTo()));
+            }, this::buildAccount);
         } catch (SQLException e) {
             throw new RuntimeException("Could not update account from Database!",e);
         }
 
-        throw new ResourceNotFoundException("The account could not be found in the database!");
+        if(retVal == null)
+            throw accountChangeFailed(change);
+        return retVal;
+    }
+
+    /**
+     * Works out why a compare and set of an account changed nothing
+     * @param change - the account that failed to change
+     * @return - The exception to throw
+     * @throws ResourceNotFoundException - if the account doesn't exist at all
+     */
+    private OptimisticLockException accountChangeFailed(Account change) throws ResourceNotFoundException {
+        Account current = getAccount(change.getAccountID());
+        return new OptimisticLockException("The account was changed from version " + change.getVersion() +
+                " to " + current.getVersion() + " before it could be updated!");
     }
 
     /**
@@ -321,21 +366,18 @@ public class BankRepositoryImplementation implements BankRepository{
     @Override
     public Account deleteAccount(String accountId) throws ResourceNotFoundException {
         String sql = "DELETE FROM \"Account_Data\" WHERE \"Account_ID\" = ? RETURNING *";
+        byte[] id = decodeId(accountId);
+        Account retVal;
 
         try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, accountId);
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next())
-                return buildAccount(rs);
-
+            retVal = executor.queryOne(sql, ps -> ps.setBytes(1, id), this::buildAccount);
         }catch (SQLException e) {
             throw new RuntimeException("Could not delete Account!", e);
         }
 
-        throw new ResourceNotFoundException("Account Not Found in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("Account Not Found in Database!");
+        return retVal;
     }
 
     /**
@@ -348,15 +390,7 @@ public class BankRepositoryImplementation implements BankRepository{
         MyArrayList<Account> accounts = new MyArrayList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                accounts.add(buildAccount(rs));
-            }
-
+            executor.query(query, null, this::buildAccount, accounts::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -365,6 +399,23 @@ public class BankRepositoryImplementation implements BankRepository{
         return accounts;
     }
 
+    /**
+     * Returns every account, reading them from the database a few at a time as they are iterated over.
+     * The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the accounts
+     */
+    @Override
+    public CloseableIterator<Account> streamAllAccounts() {
+
+        String query = "SELECT * FROM \"Account_Data\"";
+
+        try {
+            return executor.stream(query, null, this::buildAccount, fetchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not stream accounts from Database!", e);
+        }
+    }
+
     /**
      * Given a user, return all the accounts owned by that user
      * @param user - The user whose accounts we are getting
@@ -378,16 +429,7 @@ public class BankRepositoryImplementation implements BankRepository{
         MyArrayList<Account> accounts = new MyArrayList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            ps.setString(1, user.getUsername());
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                accounts.add(buildAccount(rs));
-            }
-
+            executor.query(query, ps -> ps.setString(1, user.getUsername()), this::buildAccount, accounts::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -404,28 +446,112 @@ public class BankRepositoryImplementation implements BankRepository{
     @Override
     public Transaction addTransaction(Transaction newTransaction) {
 
-        String sql = "INSERT INTO \"Transactions\" VALUES (?,?,?,?,?) RETURNING *";
+        String sql = "INSERT INTO \"Transactions\" (\"Transacation_ID\", \"Date_Made\", \"Amount\", " +
+                "\"From_Account\", \"To_Account\", \"Made_At\") VALUES (?,?,?,?,?,COALESCE(?, now())) RETURNING *";
 
         try {
-            PreparedStatement ps = connection.prepareStatement(sql);
+            return executor.queryOne(sql, ps -> bindTransaction(ps, newTransaction), this::buildTransaction);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not add a Transaction to the Database!", e);
+        }
+    }
 
-            // Set Values
-            ps.setString(1, newTransaction.getTransactionID());
-            ps.setDate(2, newTransaction.getDate());
-            ps.setBigDecimal(3, newTransaction.getAmount());
-            ps.setString(4, newTransaction.getFrom());
-            ps.setString(5, newTransaction.getTo());
+    /**
+     * Moves funds between accounts and records the transaction in a single statement, so the debit, the credit
+     * and the ledger row are committed together or not at all. The debit only happens if the from account is
+     * active and holds the funds, the balance is checked by the database against the latest committed row
+     * so racing transfers can't overdraw it. The to account is credited only if the bank controls it.
+     * Both rows are locked in id order first so transfers in opposite directions can't deadlock
+     * @param transfer - The transaction to make
+     * @return - The transaction recorded, or null if the from account can't cover it
+     */
+    @Override
+    public Transaction transfer(Transaction transfer) {
+
+        String sql = "WITH \"Locked\" AS (" +
+                "SELECT \"Account_ID\" FROM \"Account_Data\" WHERE \"Account_ID\" IN (?, ?) " +
+                "ORDER BY \"Account_ID\" FOR UPDATE" +
+                "), \"Debit\" AS (" +
+                "UPDATE \"Account_Data\" SET \"Balance\" = \"Balance\" - ?, \"Version\" = \"Version\" + 1 " +
+                // count(*) reads every locked row where EXISTS could stop after the first one
+                "WHERE \"Account_ID\" = ? AND \"Active\" AND \"Balance\" >= ? " +
+                "AND (SELECT count(*) FROM \"Locked\") > 0 RETURNING \"Account_ID\"" +
+                "), \"Credit\" AS (" +
+                "UPDATE \"Account_Data\" SET \"Balance\" = \"Balance\" + ?, \"Version\" = \"Version\" + 1 " +
+                "WHERE \"Account_ID\" = ? AND EXISTS (SELECT 1 FROM \"Debit\") RETURNING \"Account_ID\"" +
+                ") INSERT INTO \"Transactions\" SELECT ?, ?, ?, ?, ? FROM \"Debit\" RETURNING *";
 
-            ResultSet rs = ps.executeQuery();
+        try {
+            return executor.queryOne(sql, ps -> {
+                ps.setBytes(1, Hex.decode(transfer.getFrom()));
+                ps.setBytes(2, Hex.decode(transfer.getTo()));
+                setMoney(ps, 3, transfer.getAmount());
+                ps.setBytes(4, Hex.decode(transfer.getFrom()));
+                setMoney(ps, 5, transfer.getAmount());
+                setMoney(ps, 6, transfer.getAmount());
+                ps.setBytes(7, Hex.decode(transfer.getTo()));
+                ps.setBytes(8, Hex.decode(transfer.getTransactionID()));
+                ps.setDate(9, transfer.getDate());
+                setMoney(ps, 10, transfer.getAmount());
+                ps.setBytes(11, Hex.decode(transfer.getFrom()));
+                ps.setBytes(12, Hex.decode(transfer.getTo()));
+            }, this::buildTransaction);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not make the transfer in the Database!", e);
+        }
+    }
 
-            if(rs.next()){
-                return buildTransaction(rs);
-            }
+    /**
+     * Applies many deposits and withdrawals to their accounts and records them, sending them in batches that
+     * are each committed as one transaction. A deposit has no from account and a withdrawal has no to account.
+     * Each is a single statement that changes the balance and records the transaction together, a withdrawal
+     * the account can't cover changes nothing without failing the rest of the batch
+     * @param entries - The deposits and withdrawals to apply
+     * @return - The outcome of each in the order they were given, a row count of 0 means it was refused
+     */
+    @Override
+    public BatchResult applyTransactions(Iterable<Transaction> entries) {
+
+        String sql = "WITH \"Changed\" AS (" +
+                "UPDATE \"Account_Data\" SET \"Balance\" = \"Balance\" + ?, \"Version\" = \"Version\" + 1 " +
+                "WHERE \"Account_ID\" = ? AND \"Balance\" + ? >= 0 RETURNING \"Account_ID\"" +
+                ") INSERT INTO \"Transactions\" SELECT ?, ?, ?, ?, ? FROM \"Changed\"";
+
+        try {
+            return executor.batch(sql, entries, (ps, entry) -> {
+                // money leaves the from account of a withdrawal and enters the to account of a deposit
+                boolean withdrawal = entry.getFrom() != null;
+                Money change = withdrawal ? entry.getAmount().negate() : entry.getAmount();
+                setMoney(ps, 1, change);
+                ps.setBytes(2, Hex.decode(withdrawal ? entry.getFrom() : entry.getTo()));
+                setMoney(ps, 3, change);
+                ps.setBytes(4, Hex.decode(entry.getTransactionID()));
+                ps.setDate(5, entry.getDate());
+                setMoney(ps, 6, entry.getAmount());
+                ps.setBytes(7, Hex.decode(entry.getFrom()));
+                ps.setBytes(8, Hex.decode(entry.getTo()));
+            }, batchSize);
         } catch (SQLException e) {
-            throw new RuntimeException("Could not add a Transaction to the Database!", e);
+            throw new RuntimeException("Could not apply the Transactions to the Database!", e);
         }
+    }
 
-        return null;
+    /**
+     * Adds many transactions to the database, sending them in batches
+     * @param newTransactions - The transactions to add
+     * @return - The outcome of each transaction in the order they were given
+     */
+    @Override
+    public BatchResult addTransactions(Iterable<Transaction> newTransactions) {
+
+        String sql = "INSERT INTO \"Transactions\" (\"Transacation_ID\", \"Date_Made\", \"Amount\", " +
+                "\"From_Account\", \"To_Account\", \"Made_At\") VALUES (?,?,?,?,?,COALESCE(?, now()))";
+
+        try {
+            return executor.batch(sql, newTransactions, this::bindTransaction, batchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not add the Transactions to the Database!", e);
+        }
     }
 
     /**
@@ -438,24 +564,19 @@ public class BankRepositoryImplementation implements BankRepository{
     public Transaction getTransaction(String transactionId) throws ResourceNotFoundException {
 
         String query = "SELECT * FROM \"Transactions\" WHERE \"Transacation_ID\" = ?";
+        byte[] id = decodeId(transactionId);
+        Transaction retVal;
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Set Values for any Placeholders
-            ps.setString(1, transactionId);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next()){
-                return buildTransaction(rs);
-            }
+            retVal = executor.queryOne(query, ps -> ps.setBytes(1, id), this::buildTransaction);
         } catch (SQLException e)
         {
             throw new RuntimeException("Could not get transaction from Database!",e);
         }
 
-        throw new ResourceNotFoundException("Could not Locate transaction in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("Could not Locate transaction in Database!");
+        return retVal;
     }
 
     /**
@@ -469,26 +590,25 @@ public class BankRepositoryImplementation implements BankRepository{
 
         String sql = "UPDATE \"Transactions\" set \"Date_Made\"=?, \"Amount\"=?, " +
                 "\"From_Account\"=?, \"To_Account\"=? WHERE \"Transacation_ID\" = ? RETURNING *";
-        try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-
-            // Set Values
-            ps.setDate(1, change.getDate());
-            ps.setBigDecimal(2, change.getAmount());
-            ps.setString(3, change.getFrom());
-            ps.setString(4, change.getTo());
-            ps.setString(5, change.getTransactionID());
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next())
-                return buildTransaction(rs);
+        byte[] id = decodeId(change.getTransactionID());
+        Transaction retVal;
 
+        try{
+            retVal = executor.queryOne(sql, ps -> {
+                // Set Values
+                ps.setDate(1, change.getDate());
+                setMoney(ps, 2, change.getAmount());
+                ps.setBytes(3, Hex.decode(change.getFrom()));
+                ps.setBytes(4, Hex.decode(change.getTo()));
+                ps.setBytes(5, id);
+            }, this::buildTransaction);
         } catch (SQLException e) {
             throw new RuntimeException("Could not update transaction from Database!",e);
         }
 
-        throw new ResourceNotFoundException("The transaction could not be found in the database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("The transaction could not be found in the database!");
+        return retVal;
     }
 
     /**
@@ -501,43 +621,32 @@ public class BankRepositoryImplementation implements BankRepository{
     public Transaction deleteTransaction(String transactionId) throws ResourceNotFoundException {
 
         String sql = "DELETE FROM \"Transactions\" WHERE \"Transacation_ID\" = ? RETURNING *";
+        byte[] id = decodeId(transactionId);
+        Transaction retVal;
 
         try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, transactionId);
-
-            ResultSet rs = ps.executeQuery();
-
-            if(rs.next())
-                return buildTransaction(rs);
-
+            retVal = executor.queryOne(sql, ps -> ps.setBytes(1, id), this::buildTransaction);
         }catch (SQLException e) {
             throw new RuntimeException("Could not delete Transaction!", e);
         }
 
-        throw new ResourceNotFoundException("Transaction Not Found in Database!");
+        if(retVal == null)
+            throw new ResourceNotFoundException("Transaction Not Found in Database!");
+        return retVal;
     }
 
     /**
-     * Returns a custom array list of all the transactions
+     * Returns a custom array list of all the transactions, newest first
      * @return - A custom Array list of all the transactions
      */
     @Override
     public MyArrayList<Transaction> getAllTransactions() {
 
-        String query = "SELECT * FROM \"Transactions\"";
+        String query = "SELECT * FROM \"Transactions\" ORDER BY \"Made_At\" DESC, \"Sequence\" DESC";
         MyArrayList<Transaction> transactions = new MyArrayList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                transactions.add(buildTransaction(rs));
-            }
-
+            executor.query(query, null, this::buildTransaction, transactions::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -547,7 +656,25 @@ public class BankRepositoryImplementation implements BankRepository{
     }
 
     /**
-     * Given a certain user, get all of their Transactions
+     * Returns every transaction, reading them from the database a few at a time as they are iterated over.
+     * The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the transactions
+     */
+    @Override
+    public CloseableIterator<Transaction> streamAllTransactions() {
+
+        String query = "SELECT * FROM \"Transactions\"";
+
+        try {
+            return executor.stream(query, null, this::buildTransaction, fetchSize);
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not stream transactions from Database!", e);
+        }
+    }
+
+    /**
+     * Given a certain user, get all of their Transactions, newest first. The database sorts them,
+     * so each one is simply appended as it arrives
      * @param user - The user to get all their transactions
      * @return - Return an array list of all the User's transactions
      */
@@ -556,22 +683,15 @@ public class BankRepositoryImplementation implements BankRepository{
 
         String query = "SELECT * FROM \"Transactions\" WHERE \"From_Account\" IN " +
                 "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" =?) OR \"To_Account\" IN " +
-                "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" =?);";
+                "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" =?) " +
+                "ORDER BY \"Made_At\" DESC, \"Sequence\" DESC";
         MyLinkedList<Transaction> transactions = new MyLinkedList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            ps.setString(1, user.getUsername());
-            ps.setString(2, user.getUsername());
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                transactions.insertOrdered(buildTransaction(rs),
-                        (Transaction a, Transaction b) -> a.getDate().getTime() > b.getDate().getTime());
-            }
-
+            executor.query(query, ps -> {
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getUsername());
+            }, this::buildTransaction, transactions::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -581,7 +701,8 @@ public class BankRepositoryImplementation implements BankRepository{
     }
 
     /**
-     * Given an account, get all its transactions
+     * Given an account, get all its transactions, newest first. The database sorts them,
+     * so each one is simply appended as it arrives
      * @param account - Account to get all its transactions
      * @return - An array list of transactions associated with given account
      */
@@ -589,22 +710,14 @@ public class BankRepositoryImplementation implements BankRepository{
     public MyLinkedList<Transaction> getAllTransactions(Account account) {
 
         String query = "SELECT * FROM \"Transactions\" WHERE \"From_Account\"=? OR " +
-                "\"To_Account\"=?;";
+                "\"To_Account\"=? ORDER BY \"Made_At\" DESC, \"Sequence\" DESC";
         MyLinkedList<Transaction> transactions = new MyLinkedList<>();
 
         try {
-            // Set up PreparedStatement
-            PreparedStatement ps = connection.prepareStatement(query);
-            ps.setString(1, account.getAccountID());
-            ps.setString(2, account.getAccountID());
-            // Execute the statement
-            ResultSet rs = ps.executeQuery();
-
-            while(rs.next()){
-                transactions.insertOrdered(buildTransaction(rs),
-                        (Transaction a, Transaction b) -> a.getDate().getTime() > b.getDate().getTime());
-            }
-
+            executor.query(query, ps -> {
+                ps.setBytes(1, Hex.decode(account.getAccountID()));
+                ps.setBytes(2, Hex.decode(account.getAccountID()));
+            }, this::buildTransaction, transactions::add);
         } catch (SQLException e)
         {
             e.printStackTrace();
@@ -613,50 +726,367 @@ public class BankRepositoryImplementation implements BankRepository{
         return transactions;
     }
 
+    /**
+     * Given a certain user, get all of their Transactions sorted by when they were made. The database sends them
+     * oldest first so transactions made at the same instant keep the order they were recorded in
+     * @param user - The user to get all their transactions
+     * @return - The user's transactions, keyed by when they were made
+     */
     @Override
-    public boolean addUserAccount(String username, String accountId) {
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(User user) {
 
-        String sql = "INSERT INTO \"User_Accounts\" VALUES (?,?) RETURNING *";
+        String query = "SELECT * FROM \"Transactions\" WHERE \"From_Account\" IN " +
+                "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" =?) OR \"To_Account\" IN " +
+                "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" =?) " +
+                "ORDER BY \"Made_At\", \"Sequence\"";
+        MySkipList<Timestamp, Transaction> history = newHistory();
+
+        try {
+            executor.query(query, ps -> {
+                ps.setString(1, user.getUsername());
+                ps.setString(2, user.getUsername());
+            }, this::buildTransaction, history::add);
+        } catch (SQLException e)
+        {
+            e.printStackTrace();
+        }
+
+        return history;
+    }
+
+    /**
+     * Given an account, get all its transactions sorted by when they were made. The database sends them
+     * oldest first so transactions made at the same instant keep the order they were recorded in
+     * @param account - Account to get all its transactions
+     * @return - The account's transactions, keyed by when they were made
+     */
+    @Override
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(Account account) {
+
+        String query = "SELECT * FROM \"Transactions\" WHERE \"From_Account\"=? OR " +
+                "\"To_Account\"=? ORDER BY \"Made_At\", \"Sequence\"";
+        MySkipList<Timestamp, Transaction> history = newHistory();
 
         try {
-            PreparedStatement ps = connection.prepareStatement(sql);
+            executor.query(query, ps -> {
+                ps.setBytes(1, Hex.decode(account.getAccountID()));
+                ps.setBytes(2, Hex.decode(account.getAccountID()));
+            }, this::buildTransaction, history::add);
+        } catch (SQLException e)
+        {
+            e.printStackTrace();
+        }
 
-            // Set Values
-            ps.setString(1, username);
-            ps.setString(2, accountId);
+        return history;
+    }
 
-            ResultSet rs = ps.executeQuery();
+    /**
+     * Makes an empty history keyed by when each transaction was made, transactions not yet recorded go first
+     */
+    private static MySkipList<Timestamp, Transaction> newHistory() {
+        return new MySkipList<>(Transaction::getMadeAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
 
-            if(rs.next()){
-                return true;
+    /**
+     * Given a user, get one page of their transactions, newest first. The page is found by seeking past the
+     * last transaction of the previous page instead of counting rows, so every page costs the same
+     * @param user - The user to get the transactions of
+     * @param continuationToken - The token of the previous page, or null for the first page
+     * @param pageSize - The most transactions to return
+     * @return - The page of transactions along with the token for the next page
+     * @throws ResourceNotFoundException - if the continuation token is malformed
+     */
+    @Override
+    public TransactionPage getTransactionPage(User user, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+
+        String accounts = "(SELECT \"Account_ID\" FROM \"User_Accounts\" WHERE \"Username\" = ?)";
+        return getTransactionPage("\"From_Account\" IN " + accounts, "\"To_Account\" IN " + accounts,
+                user.getUsername(), continuationToken, pageSize);
+    }
+
+    /**
+     * Given an account, get one page of its transactions, newest first. The page is found by seeking past the
+     * last transaction of the previous page instead of counting rows, so every page costs the same
+     * @param account - The account to get the transactions of
+     * @param continuationToken - The token of the previous page, or null for the first page
+     * @param pageSize - The most transactions to return
+     * @return - The page of transactions along with the token for the next page
+     * @throws ResourceNotFoundException - if the continuation token is malformed
+     */
+    @Override
+    public TransactionPage getTransactionPage(Account account, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+
+        return getTransactionPage("\"From_Account\" = ?", "\"To_Account\" = ?",
+                decodeId(account.getAccountID()), continuationToken, pageSize);
+    }
+
+    /**
+     * Gets a page of the transactions matching either side of a transfer. Each side is read newest first on
+     * its own so each can walk an index, then the two are merged and trimmed to the page
+     * @param fromFilter - The filter on the sending account, with a single placeholder for the key
+     * @param toFilter - The filter on the receiving account, with a single placeholder for the key
+     * @param key - The value bound to the placeholders of both filters, a username or the bytes of an id
+     * @param continuationToken - The token of the previous page, or null for the first page
+     * @param pageSize - The most transactions to return
+     * @return - The page of transactions
+     * @throws ResourceNotFoundException - if the continuation token is malformed
+     */
+    private TransactionPage getTransactionPage(String fromFilter, String toFilter, Object key,
+                                               String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+
+        if(pageSize < 1)
+            throw new IllegalArgumentException("The page size must be at least one!");
+
+        // The time and sequence of the last transaction on the previous page
+        Timestamp afterTime = null;
+        long afterSequence = 0;
+        if(continuationToken != null) {
+            int split = continuationToken.indexOf('|');
+            try {
+                afterTime = fromEpochMicros(Long.parseLong(continuationToken.substring(0, split)));
+                afterSequence = Long.parseLong(continuationToken.substring(split + 1));
+            } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+                throw new ResourceNotFoundException("Malformed continuation token");
             }
+        }
+
+        String seek = afterTime == null ? "" : " AND (\"Made_At\", \"Sequence\") < (?, ?)";
+        String order = " ORDER BY \"Made_At\" DESC, \"Sequence\" DESC LIMIT ?";
+        String query = "(SELECT * FROM \"Transactions\" WHERE " + fromFilter + seek + order + ")" +
+                " UNION " +
+                "(SELECT * FROM \"Transactions\" WHERE " + toFilter + seek + order + ")" +
+                order;
+
+        Timestamp seekTime = afterTime;
+        long seekSequence = afterSequence;
+        int limit = pageSize + 1; // one extra row tells us whether there is another page
+        MyArrayList<Transaction> transactions = new MyArrayList<>(limit);
+
+        try {
+            executor.query(query, ps -> {
+                int index = 1;
+                for(int side = 0; side < 2; ++side) {
+                    ps.setObject(index++, key);
+                    if(seekTime != null) {
+                        ps.setTimestamp(index++, seekTime);
+                        ps.setLong(index++, seekSequence);
+                    }
+                    ps.setInt(index++, limit);
+                }
+                ps.setInt(index, limit);
+            }, this::buildTransaction, transactions::add);
         } catch (SQLException e) {
-            throw new RuntimeException("Could not add a User/Account to the Database!", e);
+            throw new RuntimeException("Could not get transactions from Database!", e);
+        }
+
+        String nextToken = null;
+        if(transactions.size() > pageSize) {
+            transactions.remove(pageSize);
+            Transaction last = transactions.end();
+            nextToken = toEpochMicros(last.getMadeAt()) + "|" + last.getSequence();
+        }
+
+        return new TransactionPage(transactions, nextToken);
+    }
+
+    /**
+     * Turns a time into microseconds since the epoch. Unlike the time's text this names a single instant
+     * whatever the time zone, so a token made during a daylight saving change can't be read back as another time
+     * @param time - The time, with microsecond precision as the database keeps it
+     * @return - The microseconds since the epoch
+     */
+    private static long toEpochMicros(Timestamp time) {
+        return Math.floorDiv(time.getTime(), 1000L) * 1_000_000L + time.getNanos() / 1000;
+    }
+
+    /**
+     * Turns microseconds since the epoch back into a time
+     * @param micros - The microseconds since the epoch
+     * @return - The time
+     */
+    private static Timestamp fromEpochMicros(long micros) {
+        Timestamp time = new Timestamp(Math.floorDiv(micros, 1_000_000L) * 1000L);
+        time.setNanos((int) Math.floorMod(micros, 1_000_000L) * 1000);
+        return time;
+    }
+
+    /**
+     * Returns every link between a user and an account they own
+     * @return - A custom ArrayList of all the user/account links
+     */
+    @Override
+    public MyArrayList<UserAccount> getAllUserAccounts() {
+
+        String query = "SELECT * FROM \"User_Accounts\"";
+        MyArrayList<UserAccount> links = new MyArrayList<>();
+
+        try {
+            executor.query(query, null,
+                    rs -> new UserAccount(rs.getString("Username"), Hex.encode(rs.getBytes("Account_ID"))), links::add);
+        } catch (SQLException e)
+        {
+            e.printStackTrace();
         }
 
-        return false;
+        return links;
+    }
+
+    @Override
+    public boolean addUserAccount(String username, String accountId) {
+
+        String sql = "INSERT INTO \"User_Accounts\" VALUES (?,?) RETURNING *";
+
+        try {
+            return executor.queryOne(sql, ps -> {
+                // Set Values
+                ps.setString(1, username);
+                ps.setBytes(2, Hex.decode(accountId));
+            }, rs -> Boolean.TRUE) != null;
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not add a User/Account to the Database!", e);
+        }
     }
 
     @Override
     public boolean deleteUserAccount(String username, String accountId) throws ResourceNotFoundException {
 
         String sql = "DELETE FROM \"User_Accounts\" WHERE \"Username\"=? AND \"Account_ID\"=? RETURNING *";
+        byte[] id = decodeId(accountId);
+        Boolean deleted;
 
         try{
-            PreparedStatement ps = connection.prepareStatement(sql);
-            ps.setString(1, username);
-            ps.setString(2, accountId);
+            deleted = executor.queryOne(sql, ps -> {
+                ps.setString(1, username);
+                ps.setBytes(2, id);
+            }, rs -> Boolean.TRUE);
+        }catch (SQLException e) {
+            throw new RuntimeException("Could not delete Transaction!", e);
+        }
+
+        if(deleted == null)
+            throw new ResourceNotFoundException("User/Account Not Found in Database!");
+        return true;
+    }
 
-            ResultSet rs = ps.executeQuery();
+    /**
+     * Sets how many rows the bulk add methods send to the database at once
+     * @param batchSize - the rows per batch
+     */
+    public void setBatchSize(int batchSize) {
+        if(batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be at least one!");
+        this.batchSize = batchSize;
+    }
 
-            if(rs.next())
-                return true;
+    public int getBatchSize() { return batchSize; }
 
-        }catch (SQLException e) {
-            throw new RuntimeException("Could not delete Transaction!", e);
+    /**
+     * Sets how many rows the streaming readers fetch from the database at a time
+     * @param fetchSize - the rows per fetch
+     */
+    public void setFetchSize(int fetchSize) {
+        if(fetchSize < 1)
+            throw new IllegalArgumentException("The fetch size must be at least one!");
+        this.fetchSize = fetchSize;
+    }
+
+    public int getFetchSize() { return fetchSize; }
+
+    /**
+     * Sets the values of a User as the placeholders of an insert
+     * @param ps - The statement to bind
+     * @param user - The user holding the values
+     * @throws SQLException
+     */
+    private void bindUser(PreparedStatement ps, User user) throws SQLException {
+        ps.setString(1, user.getUsername());
+        ps.setString(2, user.getFirstName());
+        ps.setString(3, user.getLastName());
+        ps.setString(4, user.getPhoneNumber());
+        ps.setString(5, user.getEmail());
+        ps.setString(6, user.getAddressLine1());
+        ps.setString(7, user.getAddressLine2());
+        ps.setString(8, user.getState());
+        ps.setString(9, user.getZipCode());
+        ps.setString(10, user.getSSN_Hash());
+        ps.setString(11, user.getPass_Hash());
+    }
+
+    /**
+     * Binds an amount of money to a NUMERIC placeholder
+     * @param ps - The statement to bind
+     * @param index - The placeholder to set
+     * @param amount - The amount, may be null
+     * @throws SQLException
+     */
+    private static void setMoney(PreparedStatement ps, int index, Money amount) throws SQLException {
+        if(amount == null)
+            ps.setNull(index, Types.NUMERIC);
+        else
+            ps.setBigDecimal(index, amount.toBigDecimal());
+    }
+
+    /**
+     * Turns an id given by a caller into the bytes it is stored as. A malformed id can't belong to anything
+     * in the database, so it is reported the same way as an id that isn't there
+     * @param id - The id as a hex string
+     * @return - The bytes of the id
+     * @throws ResourceNotFoundException - if the id is not valid hex
+     */
+    private static byte[] decodeId(String id) throws ResourceNotFoundException {
+        try {
+            return Hex.decode(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResourceNotFoundException("Malformed id \"" + id + "\" could not be found in the Database!");
         }
+    }
 
-        throw new ResourceNotFoundException("User/Account Not Found in Database!");
+    /**
+     * Sets the values of an Account as the placeholders of an insert
+     * @param ps - The statement to bind
+     * @param account - The account holding the values
+     * @throws SQLException
+     */
+    private void bindAccount(PreparedStatement ps, Account account) throws SQLException {
+        ps.setBytes(1, Hex.decode(account.getAccountID()));
+        setMoney(ps, 2, account.getBalance());
+        ps.setString(3, account.getType().toString());
+        ps.setBoolean(4, account.isActive());
+    }
+
+    /**
+     * Sets the values of an Account as the placeholders of a compare and set update
+     * @param ps - The statement to bind
+     * @param account - The account holding the values and the version it was read at
+     * @param id - The id of the account, already decoded
+     * @throws SQLException
+     */
+    private void bindAccountChange(PreparedStatement ps, Account account, byte[] id) throws SQLException {
+        setMoney(ps, 1, account.getBalance());
+        ps.setString(2, account.getType().toString());
+        ps.setBoolean(3, account.isActive());
+        ps.setBytes(4, id);
+        ps.setLong(5, account.getVersion());
+    }
+
+    /**
+     * Sets the values of a Transaction as the placeholders of an insert. A transaction that already knows when
+     * it was made, such as one being loaded from elsewhere, keeps that time so history stays in the order the
+     * transactions happened, otherwise the database records the time of the insert
+     * @param ps - The statement to bind
+     * @param transaction - The transaction holding the values
+     * @throws SQLException
+     */
+    private void bindTransaction(PreparedStatement ps, Transaction transaction) throws SQLException {
+        ps.setBytes(1, Hex.decode(transaction.getTransactionID()));
+        ps.setDate(2, transaction.getDate());
+        setMoney(ps, 3, transaction.getAmount());
+        ps.setBytes(4, Hex.decode(transaction.getFrom()));
+        ps.setBytes(5, Hex.decode(transaction.getTo()));
+        ps.setTimestamp(6, transaction.getMadeAt());
     }
 
     /**
@@ -692,10 +1122,11 @@ public class BankRepositoryImplementation implements BankRepository{
     private Account buildAccount(ResultSet rs) throws SQLException {
 
         Account retVal = new Account();
-        retVal.setAccountID(rs.getString("Account_ID"));
-        retVal.setBalance(rs.getBigDecimal("Balance"));
+        retVal.setAccountID(Hex.encode(rs.getBytes("Account_ID")));
+        retVal.setBalance(Money.valueOf(rs.getBigDecimal("Balance")));
         retVal.setType(Account.AccountType.valueOf(rs.getString("Type")));
         retVal.setActive(rs.getBoolean("Active"));
+        retVal.setVersion(rs.getLong("Version"));
 
         return retVal;
     }
@@ -709,11 +1140,13 @@ public class BankRepositoryImplementation implements BankRepository{
     private Transaction buildTransaction(ResultSet rs) throws SQLException {
 
         Transaction retVal = new Transaction();
-        retVal.setTransactionID(rs.getString("Transacation_ID"));
+        retVal.setTransactionID(Hex.encode(rs.getBytes("Transacation_ID")));
         retVal.setDate(rs.getDate("Date_Made"));
-        retVal.setAmount(rs.getBigDecimal("Amount"));
-        retVal.setFrom(rs.getString("From_Account"));
-        retVal.setTo(rs.getString("To_Account"));
+        retVal.setAmount(Money.valueOf(rs.getBigDecimal("Amount")));
+        retVal.setFrom(Hex.encode(rs.getBytes("From_Account")));
+        retVal.setTo(Hex.encode(rs.getBytes("To_Account")));
+        retVal.setMadeAt(rs.getTimestamp("Made_At"));
+        retVal.setSequence(rs.getLong("Sequence"));
 
         return retVal;
     }
@@ -724,6 +1157,10 @@ public class BankRepositoryImplementation implements BankRepository{
      */
     @Override
     public boolean isConnected() {
-        return connection != null;
+        try (Connection connection = JDBCConnection.getInstance().getConnection()) {
+            return !connection.isClosed(); // the pool only hands out connections that are alive
+        } catch (SQLException e) {
+            return false; // can't establish a connection
+        }
     }
 }
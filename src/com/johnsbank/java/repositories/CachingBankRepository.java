@@ -0,0 +1,302 @@
+package com.johnsbank.java.repositories;
+
+import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
+import com.johnsbank.java.models.User;
+import com.johnsbank.java.models.UserAccount;
+import com.johnsbank.java.utilities.BatchResult;
+import com.johnsbank.java.utilities.CloseableIterator;
+import com.johnsbank.java.utilities.EntityCache;
+import com.johnsbank.java.utilities.MyArrayList;
+import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
+import com.johnsbank.java.utilities.ResourceNotFoundException;
+import java.sql.Timestamp;
+
+/**
+ * Sits in front of another repository and keeps recently read users and accounts in memory, so the several
+ * lookups of the same row made by a single action only go to the database once. Users are keyed by username
+ * and accounts by id. A cached row is dropped whenever it is updated or deleted through this repository,
+ * and after its time to live for changes made anywhere else. A row read by a miss is only cached if it wasn't
+ * invalidated while it was being read.
+ * Callers are handed copies, so changing a returned model never changes what is cached
+ */
+public class CachingBankRepository implements BankRepository {
+
+    private final BankRepository repository;            // Where cache misses and all writes go
+    private final EntityCache<String, User> users;
+    private final EntityCache<String, Account> accounts;
+
+    /**
+     * Creates a cache in front of the given repository
+     * @param repository - The repository rows are read from and written to
+     * @param maxSize - The most users, and separately the most accounts, held at once
+     * @param ttlMillis - How long a cached row is trusted in milliseconds
+     */
+    public CachingBankRepository(BankRepository repository, int maxSize, long ttlMillis) {
+        this.repository = repository;
+        this.users = new EntityCache<>(maxSize, ttlMillis);
+        this.accounts = new EntityCache<>(maxSize, ttlMillis);
+    }
+
+    public EntityCache<String, User> getUserCache() { return users; }
+    public EntityCache<String, Account> getAccountCache() { return accounts; }
+
+    // CRUD Operations on Users
+
+    @Override
+    public User addUser(User newUser) {
+        return repository.addUser(newUser);
+    }
+
+    @Override
+    public BatchResult addUsers(Iterable<User> newUsers) {
+        return repository.addUsers(newUsers);
+    }
+
+    /**
+     * Returns the user from the cache, reading it from the repository on a miss
+     */
+    @Override
+    public User getUser(String username) throws ResourceNotFoundException {
+
+        User cached = users.get(username);
+        if(cached != null)
+            return new User(cached);
+
+        long stamp = users.stamp();
+        User retVal = repository.getUser(username);
+        users.put(username, new User(retVal), stamp);
+        return retVal;
+    }
+
+    @Override
+    public User updateUser(User change) throws ResourceNotFoundException {
+        users.invalidate(change.getUsername());
+        try {
+            return repository.updateUser(change);
+        } finally {
+            users.invalidate(change.getUsername());
+        }
+    }
+
+    @Override
+    public User deleteUser(String username) throws ResourceNotFoundException {
+        users.invalidate(username);
+        try {
+            return repository.deleteUser(username);
+        } finally {
+            users.invalidate(username);
+        }
+    }
+
+    @Override
+    public MyArrayList<User> getAllUsers() {
+        return repository.getAllUsers();
+    }
+
+    @Override
+    public CloseableIterator<User> streamAllUsers() {
+        return repository.streamAllUsers();
+    }
+
+    @Override
+    public MyArrayList<User> getAllOwners(Account account) throws ResourceNotFoundException {
+        return repository.getAllOwners(account);
+    }
+
+    // CRUD Operations on Accounts
+
+    @Override
+    public Account addAccount(Account newAccount) {
+        return repository.addAccount(newAccount);
+    }
+
+    @Override
+    public BatchResult addAccounts(Iterable<Account> newAccounts) {
+        return repository.addAccounts(newAccounts);
+    }
+
+    /**
+     * Returns the account from the cache, reading it from the repository on a miss
+     */
+    @Override
+    public Account getAccount(String accountId) throws ResourceNotFoundException {
+
+        Account cached = accounts.get(accountId);
+        if(cached != null)
+            return new Account(cached);
+
+        long stamp = accounts.stamp();
+        Account retVal = repository.getAccount(accountId);
+        accounts.put(accountId, new Account(retVal), stamp);
+        return retVal;
+    }
+
+    @Override
+    public Account updateAccount(Account change) throws ResourceNotFoundException {
+        // dropped afterwards as well, a conflicting change means the cached row is out of date
+        accounts.invalidate(change.getAccountID());
+        try {
+            return repository.updateAccount(change);
+        } finally {
+            accounts.invalidate(change.getAccountID());
+        }
+    }
+
+    @Override
+    public Account updateAccount(Account change, Transaction record) throws ResourceNotFoundException {
+        accounts.invalidate(change.getAccountID());
+        try {
+            return repository.updateAccount(change, record);
+        } finally {
+            accounts.invalidate(change.getAccountID());
+        }
+    }
+
+    @Override
+    public Account deleteAccount(String accountId) throws ResourceNotFoundException {
+        accounts.invalidate(accountId);
+        try {
+            return repository.deleteAccount(accountId);
+        } finally {
+            accounts.invalidate(accountId);
+        }
+    }
+
+    @Override
+    public MyArrayList<Account> getAllAccounts() {
+        return repository.getAllAccounts();
+    }
+
+    @Override
+    public CloseableIterator<Account> streamAllAccounts() {
+        return repository.streamAllAccounts();
+    }
+
+    @Override
+    public MyArrayList<Account> getAllAccounts(User user) throws ResourceNotFoundException {
+        return repository.getAllAccounts(user);
+    }
+
+    // CRUD operations on Transactions
+
+    @Override
+    public Transaction addTransaction(Transaction newTransaction) {
+        return repository.addTransaction(newTransaction);
+    }
+
+    @Override
+    public BatchResult addTransactions(Iterable<Transaction> newTransactions) {
+        return repository.addTransactions(newTransactions);
+    }
+
+    @Override
+    public Transaction transfer(Transaction transfer) {
+        try {
+            return repository.transfer(transfer);
+        } finally {
+            accounts.invalidate(transfer.getFrom());
+            if(transfer.getTo() != null)
+                accounts.invalidate(transfer.getTo());
+        }
+    }
+
+    @Override
+    public BatchResult applyTransactions(Iterable<Transaction> entries) {
+        // read the entries only once, they may not be iterable a second time
+        MyArrayList<Transaction> batch = new MyArrayList<>();
+        for(Transaction entry : entries)
+            batch.add(entry);
+
+        try {
+            return repository.applyTransactions(batch);
+        } finally {
+            for(int i = 0; i < batch.size(); ++i) {
+                Transaction entry = batch.get(i);
+                accounts.invalidate(entry.getFrom() != null ? entry.getFrom() : entry.getTo());
+            }
+        }
+    }
+
+    @Override
+    public Transaction getTransaction(String transactionId) throws ResourceNotFoundException {
+        return repository.getTransaction(transactionId);
+    }
+
+    @Override
+    public Transaction updateTransaction(Transaction change) throws ResourceNotFoundException {
+        return repository.updateTransaction(change);
+    }
+
+    @Override
+    public Transaction deleteTransaction(String transactionId) throws ResourceNotFoundException {
+        return repository.deleteTransaction(transactionId);
+    }
+
+    @Override
+    public MyArrayList<Transaction> getAllTransactions() {
+        return repository.getAllTransactions();
+    }
+
+    @Override
+    public CloseableIterator<Transaction> streamAllTransactions() {
+        return repository.streamAllTransactions();
+    }
+
+    @Override
+    public MyLinkedList<Transaction> getAllTransactions(User user) throws ResourceNotFoundException {
+        return repository.getAllTransactions(user);
+    }
+
+    @Override
+    public MyLinkedList<Transaction> getAllTransactions(Account account) throws ResourceNotFoundException {
+        return repository.getAllTransactions(account);
+    }
+
+    @Override
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(User user) throws ResourceNotFoundException {
+        return repository.getTransactionHistory(user);
+    }
+
+    @Override
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(Account account)
+            throws ResourceNotFoundException {
+        return repository.getTransactionHistory(account);
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(User user, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+        return repository.getTransactionPage(user, continuationToken, pageSize);
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(Account account, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+        return repository.getTransactionPage(account, continuationToken, pageSize);
+    }
+
+    // CRUD operations on User Accounts
+
+    @Override
+    public boolean addUserAccount(String username, String accountId) {
+        return repository.addUserAccount(username, accountId);
+    }
+
+    @Override
+    public MyArrayList<UserAccount> getAllUserAccounts() {
+        return repository.getAllUserAccounts();
+    }
+
+    @Override
+    public boolean deleteUserAccount(String username, String accountId) throws ResourceNotFoundException {
+        return repository.deleteUserAccount(username, accountId);
+    }
+
+    @Override
+    public boolean isConnected() {
+        return repository.isConnected();
+    }
+}
@@ -0,0 +1,164 @@
+package com.johnsbank.java.repositories;
+
+import com.johnsbank.java.utilities.JDBCConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Moves the Transactions table in and out of the database in bulk using PostgreSQL's COPY. Rows are streamed
+ * straight between the database and the given stream in CSV form, so memory use doesn't grow with the table
+ */
+public class TransactionBulkTransfer {
+
+    private static final TransactionBulkTransfer instance = new TransactionBulkTransfer();
+
+    // The columns buildTransaction reads, in the order they are written to the CSV. The sequence is left out,
+    // imported rows are numbered after the rows already in the table
+    private static final String COLUMNS =
+            "\"Transacation_ID\", \"Date_Made\", \"Amount\", \"From_Account\", \"To_Account\", \"Made_At\"";
+
+    // Ids are stored as bytes but written to the CSV in hexadecimal, as users see them
+    private static final String COPY_OUT = "COPY (SELECT " +
+            "encode(\"Transacation_ID\", 'hex') AS \"Transacation_ID\", \"Date_Made\", \"Amount\", " +
+            "encode(\"From_Account\", 'hex') AS \"From_Account\", " +
+            "encode(\"To_Account\", 'hex') AS \"To_Account\", \"Made_At\" " +
+            "FROM \"Transactions\") TO STDOUT WITH (FORMAT csv, HEADER true)";
+
+    // Imports land in a staging table first so the hexadecimal ids can be turned back into bytes
+    private static final String STAGE = "CREATE TEMPORARY TABLE \"Transactions_Import\" (" +
+            "\"Transacation_ID\" TEXT, \"Date_Made\" DATE, \"Amount\" NUMERIC(20, 2), " +
+            "\"From_Account\" TEXT, \"To_Account\" TEXT, \"Made_At\" TIMESTAMPTZ) ON COMMIT DROP";
+    private static final String COPY_IN =
+            "COPY \"Transactions_Import\" (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+    // Rows are numbered in the order they were made, so rows made at the same instant page in a stable order
+    private static final String UNSTAGE = "INSERT INTO \"Transactions\" (" + COLUMNS + ") SELECT " +
+            "decode(\"Transacation_ID\", 'hex'), \"Date_Made\", \"Amount\", " +
+            "decode(\"From_Account\", 'hex'), decode(\"To_Account\", 'hex'), " +
+            "COALESCE(\"Made_At\", now()) FROM \"Transactions_Import\" " +
+            "ORDER BY COALESCE(\"Made_At\", now()), \"Date_Made\"";
+
+    /**
+     * Copies rows into the staging table from whichever source the caller has
+     */
+    private interface CopyIn {
+        long copy(CopyManager manager) throws SQLException, IOException;
+    }
+
+    private TransactionBulkTransfer() {/* Prevents anyone from instantiating */}
+
+    /* Adheres to the Singleton Pattern */
+    public static TransactionBulkTransfer getInstance() {return instance;}
+
+    /**
+     * Writes every transaction to the given stream as CSV with a header row
+     * @param out - The stream to write to, it is not closed
+     * @return - The count of transactions written
+     */
+    public long exportTransactions(OutputStream out) {
+        try (Connection connection = JDBCConnection.getInstance().getConnection()) {
+            return copyManager(connection).copyOut(COPY_OUT, out);
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Could not export the Transactions from the Database!", e);
+        }
+    }
+
+    /**
+     * Writes every transaction to the given writer as CSV with a header row
+     * @param out - The writer to write to, it is not closed
+     * @return - The count of transactions written
+     */
+    public long exportTransactions(Writer out) {
+        try (Connection connection = JDBCConnection.getInstance().getConnection()) {
+            return copyManager(connection).copyOut(COPY_OUT, out);
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Could not export the Transactions from the Database!", e);
+        }
+    }
+
+    /**
+     * Writes every transaction to the given file as CSV with a header row, replacing the file if it exists
+     * @param file - The file to write to
+     * @return - The count of transactions written
+     */
+    public long exportTransactions(Path file) {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            return exportTransactions(out);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write the Transactions to " + file + "!", e);
+        }
+    }
+
+    /**
+     * Reads transactions in CSV form with a header row from the given stream into the database.
+     * The whole import is a single transaction, so either every row is added or none are
+     * @param in - The stream to read from, it is not closed
+     * @return - The count of transactions added
+     */
+    public long importTransactions(InputStream in) {
+        return importTransactions(manager -> manager.copyIn(COPY_IN, in));
+    }
+
+    /**
+     * Reads transactions in CSV form with a header row from the given reader into the database.
+     * The whole import is a single transaction, so either every row is added or none are
+     * @param in - The reader to read from, it is not closed
+     * @return - The count of transactions added
+     */
+    public long importTransactions(Reader in) {
+        return importTransactions(manager -> manager.copyIn(COPY_IN, in));
+    }
+
+    /**
+     * Reads transactions in CSV form with a header row from the given file into the database
+     * @param file - The file to read from
+     * @return - The count of transactions added
+     */
+    public long importTransactions(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            return importTransactions(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the Transactions from " + file + "!", e);
+        }
+    }
+
+    /**
+     * Stages the rows, then moves them into the Transactions table, all in one transaction
+     * @param source - Copies the rows into the staging table
+     * @return - The count of transactions added
+     */
+    private long importTransactions(CopyIn source) {
+        try (Connection connection = JDBCConnection.getInstance().getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(STAGE);
+                long count = source.copy(copyManager(connection));
+                statement.executeUpdate(UNSTAGE);
+                connection.commit();
+                return count;
+            } catch (SQLException | IOException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Could not import the Transactions into the Database!", e);
+        }
+    }
+
+    /**
+     * Returns the COPY API of the driver behind a pooled connection
+     */
+    private CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
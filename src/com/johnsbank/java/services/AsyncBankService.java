@@ -0,0 +1,64 @@
+package com.johnsbank.java.services;
+
+import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
+import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
+import com.johnsbank.java.models.User;
+import com.johnsbank.java.utilities.MyArrayList;
+import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The operations of the BankService run off the calling thread. Each returns at once with a future that
+ * completes with the result, or exceptionally with whatever the blocking call would have thrown,
+ * including ResourceNotFoundException
+ */
+public interface AsyncBankService {
+
+    // Trivial Service Methods
+    public CompletableFuture<User> addUser(User newUser);
+    public CompletableFuture<User> getUser(String username);
+    public CompletableFuture<User> updateUser(User change);
+    public CompletableFuture<User> deleteUser(String username);
+    public CompletableFuture<MyArrayList<User>> getAllUsers();
+    public CompletableFuture<MyArrayList<User>> getAllOwners(Account account);
+
+    // Trivial Operations on Accounts
+    public CompletableFuture<Account> addAccount(Account newAccount);
+    public CompletableFuture<Account> getAccount(String accountId);
+    public CompletableFuture<Account> updateAccount(Account change);
+    public CompletableFuture<Account> deleteAccount(String accountId);
+    public CompletableFuture<MyArrayList<Account>> getAllAccounts();
+    public CompletableFuture<MyArrayList<Account>> getAllAccounts(User user);
+
+    // Trivial operations on Transactions
+    public CompletableFuture<Transaction> getTransaction(String transactionId);
+    public CompletableFuture<MyArrayList<Transaction>> getAllTransactions();
+    public CompletableFuture<MyLinkedList<Transaction>> getAllTransactions(User user);
+    public CompletableFuture<MyLinkedList<Transaction>> getAllTransactions(Account account);
+    public CompletableFuture<MySkipList<Timestamp, Transaction>> getTransactionHistory(User user);
+    public CompletableFuture<MySkipList<Timestamp, Transaction>> getTransactionHistory(Account account);
+    public CompletableFuture<TransactionPage> getTransactionPage(User user, String continuationToken, int pageSize);
+    public CompletableFuture<TransactionPage> getTransactionPage(Account account, String continuationToken,
+                                                                 int pageSize);
+
+    // Business Logic operations
+    public CompletableFuture<Boolean> sendTransaction(Transaction newTransaction);
+    public CompletableFuture<Boolean> makeOwner(Account account, User owner);
+    public CompletableFuture<Boolean> revokeOwner(Account account, User owner);
+    public CompletableFuture<Boolean> usernameIsUnique(String username);
+    public CompletableFuture<Boolean> makeDeposit(Account account, Money amount);
+    public CompletableFuture<Boolean> makeWithdrawal(Account account, Money amount);
+    public CompletableFuture<Boolean> holdAccount(Account account);
+    public CompletableFuture<Boolean> removeHold(Account account);
+    public CompletableFuture<User> logUserIn(String username, String passHash);
+
+    // Fan out operations
+    public CompletableFuture<User> loadUser(User user);
+
+    public CompletableFuture<Boolean> isConnected();
+}
@@ -0,0 +1,270 @@
+package com.johnsbank.java.services;
+
+import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
+import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
+import com.johnsbank.java.models.User;
+import com.johnsbank.java.utilities.JDBCConnection;
+import com.johnsbank.java.utilities.MyArrayList;
+import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
+import com.johnsbank.java.utilities.ResourceNotFoundException;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking BankService on a pool of worker threads. There are as many workers as there are
+ * connections in the connection pool, every call holds at most one connection at a time, so adding more
+ * workers would only leave them waiting on the pool. Calls beyond that are queued in the order they came
+ */
+public class AsyncBankServiceImplementation implements AsyncBankService {
+
+    private static final AsyncBankServiceImplementation instance = new AsyncBankServiceImplementation();
+    private static final long IDLE_WORKER_SECONDS = 60;
+
+    private final BankService service;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * A blocking call on the service
+     */
+    private interface Call<T> {
+        T call() throws ResourceNotFoundException;
+    }
+
+    private AsyncBankServiceImplementation() {
+        service = BankServiceImplementation.getInstance();
+
+        int size = JDBCConnection.getInstance().getPool().getMaxSize();
+        AtomicInteger count = new AtomicInteger();
+        workers = new ThreadPoolExecutor(size, size, IDLE_WORKER_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "bank-service-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    /* Adheres to the Singleton Pattern */
+    public static AsyncBankServiceImplementation getInstance() {return instance;}
+
+    /**
+     * Runs a call on a worker, passing any exception it throws to the future
+     * @param call - The blocking call to make
+     * @return - The future result of the call
+     */
+    private <T> CompletableFuture<T> submit(Call<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (ResourceNotFoundException e) {
+                throw new CompletionException(e);
+            }
+        }, workers);
+    }
+
+    /**
+     * Stops taking new calls, the calls already queued still run
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    public int getActiveCount() { return workers.getActiveCount(); }
+    public int getQueuedCount() { return workers.getQueue().size(); }
+    public long getCompletedCount() { return workers.getCompletedTaskCount(); }
+
+    // Trivial Service Methods
+
+    @Override
+    public CompletableFuture<User> addUser(User newUser) {
+        return submit(() -> service.addUser(newUser));
+    }
+
+    @Override
+    public CompletableFuture<User> getUser(String username) {
+        return submit(() -> service.getUser(username));
+    }
+
+    @Override
+    public CompletableFuture<User> updateUser(User change) {
+        return submit(() -> service.updateUser(change));
+    }
+
+    @Override
+    public CompletableFuture<User> deleteUser(String username) {
+        return submit(() -> service.deleteUser(username));
+    }
+
+    @Override
+    public CompletableFuture<MyArrayList<User>> getAllUsers() {
+        return submit(service::getAllUsers);
+    }
+
+    @Override
+    public CompletableFuture<MyArrayList<User>> getAllOwners(Account account) {
+        return submit(() -> service.getAllOwners(account));
+    }
+
+    // Trivial Operations on Accounts
+
+    @Override
+    public CompletableFuture<Account> addAccount(Account newAccount) {
+        return submit(() -> service.addAccount(newAccount));
+    }
+
+    @Override
+    public CompletableFuture<Account> getAccount(String accountId) {
+        return submit(() -> service.getAccount(accountId));
+    }
+
+    @Override
+    public CompletableFuture<Account> updateAccount(Account change) {
+        return submit(() -> service.updateAccount(change));
+    }
+
+    @Override
+    public CompletableFuture<Account> deleteAccount(String accountId) {
+        return submit(() -> service.deleteAccount(accountId));
+    }
+
+    @Override
+    public CompletableFuture<MyArrayList<Account>> getAllAccounts() {
+        return submit(service::getAllAccounts);
+    }
+
+    @Override
+    public CompletableFuture<MyArrayList<Account>> getAllAccounts(User user) {
+        return submit(() -> service.getAllAccounts(user));
+    }
+
+    // Trivial operations on Transactions
+
+    @Override
+    public CompletableFuture<Transaction> getTransaction(String transactionId) {
+        return submit(() -> service.getTransaction(transactionId));
+    }
+
+    @Override
+    public CompletableFuture<MyArrayList<Transaction>> getAllTransactions() {
+        return submit(service::getAllTransactions);
+    }
+
+    @Override
+    public CompletableFuture<MyLinkedList<Transaction>> getAllTransactions(User user) {
+        return submit(() -> service.getAllTransactions(user));
+    }
+
+    @Override
+    public CompletableFuture<MyLinkedList<Transaction>> getAllTransactions(Account account) {
+        return submit(() -> service.getAllTransactions(account));
+    }
+
+    @Override
+    public CompletableFuture<MySkipList<Timestamp, Transaction>> getTransactionHistory(User user) {
+        return submit(() -> service.getTransactionHistory(user));
+    }
+
+    @Override
+    public CompletableFuture<MySkipList<Timestamp, Transaction>> getTransactionHistory(Account account) {
+        return submit(() -> service.getTransactionHistory(account));
+    }
+
+    @Override
+    public CompletableFuture<TransactionPage> getTransactionPage(User user, String continuationToken,
+                                                                 int pageSize) {
+        return submit(() -> service.getTransactionPage(user, continuationToken, pageSize));
+    }
+
+    @Override
+    public CompletableFuture<TransactionPage> getTransactionPage(Account account, String continuationToken,
+                                                                 int pageSize) {
+        return submit(() -> service.getTransactionPage(account, continuationToken, pageSize));
+    }
+
+    // Business Logic operations
+
+    @Override
+    public CompletableFuture<Boolean> sendTransaction(Transaction newTransaction) {
+        return submit(() -> service.sendTransaction(newTransaction));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> makeOwner(Account account, User owner) {
+        return submit(() -> service.makeOwner(account, owner));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> revokeOwner(Account account, User owner) {
+        return submit(() -> service.revokeOwner(account, owner));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> usernameIsUnique(String username) {
+        return submit(() -> service.usernameIsUnique(username));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> makeDeposit(Account account, Money amount) {
+        return submit(() -> service.makeDeposit(account, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> makeWithdrawal(Account account, Money amount) {
+        return submit(() -> service.makeWithdrawal(account, amount));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> holdAccount(Account account) {
+        return submit(() -> service.holdAccount(account));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> removeHold(Account account) {
+        return submit(() -> service.removeHold(account));
+    }
+
+    @Override
+    public CompletableFuture<User> logUserIn(String username, String passHash) {
+        return submit(() -> service.logUserIn(username, passHash));
+    }
+
+    // Fan out operations
+
+    /**
+     * Loads the accounts the user menu shows about a user at once, and as soon as the accounts arrive the owners
+     * of each are read side by side. The history is left alone, the menu reads it a page at a time
+     * @param user - The user to load
+     * @return - The same user once its accounts and their owners are loaded
+     */
+    @Override
+    public CompletableFuture<User> loadUser(User user) {
+
+        CompletableFuture<MyArrayList<Account>> accounts = getAllAccounts(user).thenCompose(loaded -> {
+            CompletableFuture<?>[] owners = new CompletableFuture<?>[loaded.getCount()];
+            for(int i = 0; i < owners.length; ++i) {
+                Account account = loaded.get(i);
+                owners[i] = getAllOwners(account).thenAccept(account::setOwners);
+            }
+            return CompletableFuture.allOf(owners).thenApply(done -> loaded);
+        });
+
+        return accounts.thenApply(loadedAccounts -> {
+            user.setAccounts(loadedAccounts);
+            return user;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isConnected() {
+        return submit(service::isConnected);
+    }
+}
@@ -1,13 +1,17 @@
 package com.johnsbank.java.services;
 
 import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
 import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.utilities.CloseableIterator;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
+import java.sql.Timestamp;
 
-import java.math.BigDecimal;
 
 public interface BankService {
 
@@ -17,6 +21,7 @@ public interface BankService {
     public User updateUser(User change) throws ResourceNotFoundException;
     public User deleteUser(String username) throws ResourceNotFoundException;
     public MyArrayList<User> getAllUsers();
+    public CloseableIterator<User> streamAllUsers();
     public MyArrayList<User> getAllOwners(Account account) throws ResourceNotFoundException;
 
     // Trivial Operations on Accounts
@@ -25,6 +30,7 @@ public interface BankService {
     public Account updateAccount(Account change) throws ResourceNotFoundException;
     public Account deleteAccount(String accountId) throws ResourceNotFoundException;
     public MyArrayList<Account> getAllAccounts();
+    public CloseableIterator<Account> streamAllAccounts();
     public MyArrayList<Account> getAllAccounts(User user) throws ResourceNotFoundException;
 
     // Trivial operations on Transactions
@@ -32,16 +38,24 @@ public interface BankService {
 //    public Transaction updateTransaction(Transaction change) throws ResourceNotFoundException;
 //    public Transaction deleteTransaction(String transactionId) throws ResourceNotFoundException;
     public MyArrayList<Transaction> getAllTransactions();
+    public CloseableIterator<Transaction> streamAllTransactions();
     public MyLinkedList<Transaction> getAllTransactions(User user) throws ResourceNotFoundException;
     public MyLinkedList<Transaction> getAllTransactions(Account account) throws ResourceNotFoundException;
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(User user) throws ResourceNotFoundException;
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(Account account)
+            throws ResourceNotFoundException;
+    public TransactionPage getTransactionPage(User user, String continuationToken, int pageSize)
+            throws ResourceNotFoundException;
+    public TransactionPage getTransactionPage(Account account, String continuationToken, int pageSize)
+            throws ResourceNotFoundException;
 
     // Business Logic operations
     public boolean sendTransaction(Transaction newTransaction);
     public boolean makeOwner(Account account, User owner) throws ResourceNotFoundException;
     public boolean revokeOwner(Account account, User owner) throws ResourceNotFoundException;
     public boolean usernameIsUnique(String username);
-    public boolean makeDeposit(Account account, BigDecimal amount);
-    public boolean makeWithdrawal(Account account, BigDecimal amount);
+    public boolean makeDeposit(Account account, Money amount);
+    public boolean makeWithdrawal(Account account, Money amount);
     public boolean holdAccount(Account account);
     public boolean removeHold(Account account);
     public User logUserIn(String username, String passHash);
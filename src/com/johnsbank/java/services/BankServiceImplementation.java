@@ -1,25 +1,87 @@
 package com.johnsbank.java.services;
 
 import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
 import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.models.TransactionPage;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.models.UserAccount;
 import com.johnsbank.java.repositories.BankRepository;
 import com.johnsbank.java.repositories.BankRepositoryImplementation;
+import com.johnsbank.java.repositories.CachingBankRepository;
+import com.johnsbank.java.utilities.CloseableIterator;
 import com.johnsbank.java.utilities.MyArrayList;
 import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.MySkipList;
+import com.johnsbank.java.utilities.OptimisticLockException;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
+import com.johnsbank.java.utilities.StripedLockManager;
 
-import java.math.BigDecimal;
 import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.johnsbank.java.utilities.InputValidation.*;
 
 public class BankServiceImplementation implements BankService{
 
     private static final BankServiceImplementation instance = new BankServiceImplementation();
     private final BankRepository repository;
-
-    private BankServiceImplementation() {repository = BankRepositoryImplementation.getInstance();}
+    // Serializes read-modify-write cycles on the same account across every session using the service
+    private final StripedLockManager locks = new StripedLockManager(LOCK_STRIPES);
+    // Writes deposits and withdrawals in groups when set, otherwise each is written on its own
+    private volatile GroupCommitLedger ledger;
+
+    // Rows read while handling one action are served from memory for a short while
+    private static final int CACHE_SIZE = 1000;
+    private static final long CACHE_TTL_MILLIS = 30_000;
+    // Enough stripes that unrelated accounts rarely share a lock
+    private static final int LOCK_STRIPES = 256;
+    // Bounds on redoing a change that lost a race with another writer
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BACKOFF_BASE_MILLIS = 2;
+    private static final long BACKOFF_MAX_MILLIS = 50;
+
+    private BankServiceImplementation() {
+        repository = new CachingBankRepository(BankRepositoryImplementation.getInstance(),
+                CACHE_SIZE, CACHE_TTL_MILLIS);
+    }
     public static BankServiceImplementation getInstance() {return instance;}
 
+    /**
+     * Returns the locks guarding the accounts, mostly to read their contention metrics
+     * @return - The lock manager of the service
+     */
+    public StripedLockManager getLockManager() {return locks;}
+
+    /**
+     * Switches deposits and withdrawals over to being written in groups, many per commit. Each call still
+     * waits until its own deposit or withdrawal is committed, but bursts of them share the cost of a commit
+     * @param maxBatch - The most deposits and withdrawals written in one commit
+     * @param maxDelayMillis - The longest one waits for others to join it in milliseconds
+     */
+    public synchronized void enableGroupCommit(int maxBatch, long maxDelayMillis) {
+        disableGroupCommit();
+        ledger = new GroupCommitLedger(repository, maxBatch, maxDelayMillis);
+    }
+
+    /**
+     * Switches deposits and withdrawals back to one commit each, after writing any that are queued
+     */
+    public synchronized void disableGroupCommit() {
+        GroupCommitLedger current = ledger;
+        ledger = null;
+        if(current != null)
+            current.shutdown();
+    }
+
+    /**
+     * Returns the ledger writing deposits and withdrawals in groups, mostly to read its metrics
+     * @return - The ledger, or null if group commit is off
+     */
+    public GroupCommitLedger getGroupCommitLedger() {return ledger;}
+
     /**
      * Checks to make sure the username is Unique, if true adds the user, if false returns null
      * Also checks the inputs are in valid format for the Database
@@ -36,28 +98,23 @@ public class BankServiceImplementation implements BankService{
             return null;
         if(newUser.getLastName() == null || newUser.getLastName().length() > 25)
             return null;
-        if(newUser.getPhoneNumber() == null ||
-                !newUser.getPhoneNumber().matches("[(][0-9]{3}[)][ ][0-9]{3}[-][0-9]{4}"))
+        if(!isPhoneNumber(newUser.getPhoneNumber()))
             return null;
-        if(newUser.getZipCode() == null ||
-                !newUser.getZipCode().matches("[0-9]{5}([-][0-9]{4})?"))
+        if(!isZipCode(newUser.getZipCode()))
             return null;
-        if(newUser.getAddressLine1() == null ||
-                newUser.getAddressLine1().length() < 3 || newUser.getAddressLine1().length() > 100)
+        if(!isAddressLine1(newUser.getAddressLine1()))
             return null;
-        if(newUser.getAddressLine2() == null || newUser.getAddressLine2().length() > 100)
+        if(!isAddressLine2(newUser.getAddressLine2()))
             return null;
-        if(newUser.getState() == null ||
-                !newUser.getState().matches("[A-Z]{2}"))
+        if(!isStateFormat(newUser.getState()))
             return null;
-        if(newUser.getEmail() == null || !newUser.getEmail().
-                matches("([a-zA-Z0-9]{1,}[._\\-]{0,1}){1,}[a-zA-Z0-9][@][a-zA-Z0-9\\-]{1,}[.][a-zA-Z0-9\\-]{2,}"))
+        if(!isEmail(newUser.getEmail()))
             return null;
-        if(newUser.getUsername() == null || !newUser.getUsername().matches("[a-zA-Z0-9._\\-]{1,25}"))
+        if(!isUsername(newUser.getUsername()))
             return null;
-        if(newUser.getSSN_Hash() == null || !newUser.getSSN_Hash().matches("[a-f0-9]{64}"))
+        if(!isHexId(newUser.getSSN_Hash()))
             return null;
-        if(newUser.getPass_Hash() == null || !newUser.getPass_Hash().matches("[a-f0-9]{64}"))
+        if(!isHexId(newUser.getPass_Hash()))
             return null;
 
         // Checks to make sure the user is unique
@@ -79,11 +136,7 @@ public class BankServiceImplementation implements BankService{
         if(username == null || username.length() > 25)
             throw new ResourceNotFoundException("Malformed Username");
 
-        User retVal = repository.getUser(username);
-        retVal.setAccounts(getAllAccounts(retVal));
-        retVal.setTransactions(getAllTransactions(retVal));
-
-        return retVal;
+        return loadLazily(repository.getUser(username));
     }
 
     /**
@@ -101,28 +154,23 @@ public class BankServiceImplementation implements BankService{
             return null;
         if(change.getLastName() == null || change.getLastName().length() > 25)
             return null;
-        if(change.getPhoneNumber() == null ||
-                !change.getPhoneNumber().matches("[(][0-9]{3}[)][ ][0-9]{3}[-][0-9]{4}"))
+        if(!isPhoneNumber(change.getPhoneNumber()))
             return null;
-        if(change.getZipCode() == null ||
-                !change.getZipCode().matches("[0-9]{5}([-][0-9]{4})?"))
+        if(!isZipCode(change.getZipCode()))
             return null;
-        if(change.getAddressLine1() == null ||
-                change.getAddressLine1().length() < 3 || change.getAddressLine1().length() > 100)
+        if(!isAddressLine1(change.getAddressLine1()))
             return null;
-        if(change.getAddressLine2() == null || change.getAddressLine2().length() > 100)
+        if(!isAddressLine2(change.getAddressLine2()))
             return null;
-        if(change.getState() == null ||
-                !change.getState().matches("[A-Z]{2}"))
+        if(!isStateFormat(change.getState()))
             return null;
-        if(change.getEmail() == null || !change.getEmail().
-                matches("([a-zA-Z0-9]{1,}[._\\-]{0,1}){1,}[a-zA-Z0-9][@][a-zA-Z0-9\\-]{1,}[.][a-zA-Z0-9\\-]{2,}"))
+        if(!isEmail(change.getEmail()))
             return null;
-        if(change.getUsername() == null || !change.getUsername().matches("[a-zA-Z0-9._\\-]{1,25}"))
+        if(!isUsername(change.getUsername()))
             return null;
-        if(change.getSSN_Hash() == null || !change.getSSN_Hash().matches("[a-f0-9]{64}"))
+        if(!isHexId(change.getSSN_Hash()))
             return null;
-        if(change.getPass_Hash() == null || !change.getPass_Hash().matches("[a-f0-9]{64}"))
+        if(!isHexId(change.getPass_Hash()))
             return null;
 
         return repository.updateUser(change);
@@ -144,25 +192,28 @@ public class BankServiceImplementation implements BankService{
     }
 
     /**
-     * Returns a list of all the users in the database
+     * Returns a list of all the users in the database along with their accounts and transactions
      * @return - A custom Array List of all the Users in the database
      */
     @Override
     public MyArrayList<User> getAllUsers() {
 
         MyArrayList<User> retVal = repository.getAllUsers();
-        for(User user : retVal){
-            try {
-                user.setAccounts(getAllAccounts(user));
-                user.setTransactions(getAllTransactions(user));
-            } catch (ResourceNotFoundException e) {
-                throw new RuntimeException("Accounts don't exist that should!", e);
-            }
-        }
+        linkAll(retVal, repository.getAllAccounts());
 
         return retVal;
     }
 
+    /**
+     * Returns every user without their accounts or transactions, read from the database as they are iterated over
+     * so large reports run in constant memory. The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the users
+     */
+    @Override
+    public CloseableIterator<User> streamAllUsers() {
+        return repository.streamAllUsers();
+    }
+
     /**
      * Given an account, retrieves all the users that own that account
      * @param account - The account with which to find all the users who own it
@@ -175,10 +226,8 @@ public class BankServiceImplementation implements BankService{
             throw new ResourceNotFoundException("Malformed account");
 
         MyArrayList<User> retVal = repository.getAllOwners(account);
-        for(User user : retVal) {
-            user.setAccounts(getAllAccounts(user));
-            user.setTransactions(getAllTransactions(user));
-        }
+        for(User user : retVal)
+            loadLazily(user);
 
         return retVal;
     }
@@ -194,9 +243,9 @@ public class BankServiceImplementation implements BankService{
         // Make sure the account is valid
         if(newAccount == null)
             return null;
-        if(newAccount.getAccountID() == null || !newAccount.getAccountID().matches("[a-f0-9]{64}"))
+        if(!isHexId(newAccount.getAccountID()))
             return null;
-        if(newAccount.getBalance() == null || newAccount.getBalance().compareTo(BigDecimal.ZERO) < 0)
+        if(newAccount.getBalance() == null || newAccount.getBalance().signum() < 0)
             return null;
         if(newAccount.getType() == null)
             return null;
@@ -214,14 +263,10 @@ public class BankServiceImplementation implements BankService{
     public Account getAccount(String accountId) throws ResourceNotFoundException {
 
         // Make sure the account is valid
-        if(accountId == null || !accountId.matches("[a-f0-9]{64}"))
+        if(!isHexId(accountId))
             throw new ResourceNotFoundException("Malformed Account id");
 
-        Account account = repository.getAccount(accountId);
-        account.setTransactions(repository.getAllTransactions(account));
-        account.setOwners(getAllOwners(account));
-
-        return account;
+        return loadLazily(repository.getAccount(accountId));
     }
 
     /**
@@ -236,9 +281,9 @@ public class BankServiceImplementation implements BankService{
         // Make sure the account is valid
         if(change == null)
             return null;
-        if(change.getAccountID() == null || !change.getAccountID().matches("[a-f0-9]{64}"))
+        if(!isHexId(change.getAccountID()))
             return null;
-        if(change.getBalance() == null || change.getBalance().compareTo(BigDecimal.ZERO) < 0)
+        if(change.getBalance() == null || change.getBalance().signum() < 0)
             return null;
         if(change.getType() == null)
             return null;
@@ -254,29 +299,34 @@ public class BankServiceImplementation implements BankService{
      */
     @Override
     public Account deleteAccount(String accountId) throws ResourceNotFoundException {
+        if(!isHexId(accountId))
+            throw new ResourceNotFoundException("Malformed account id");
         return repository.deleteAccount(accountId);
     }
 
     /**
-     * Get an Arraylist of all the accounts
+     * Get an Arraylist of all the accounts along with their owners and transactions
      * @return - A Custom Array list holding all the accounts
      */
     @Override
     public MyArrayList<Account> getAllAccounts() {
 
         MyArrayList<Account> retVal = repository.getAllAccounts();
-        for(Account account: retVal) {
-            try {
-                account.setOwners(getAllOwners(account));
-                account.setTransactions(getAllTransactions(account));
-            }
-            catch (ResourceNotFoundException e) {
-                throw new RuntimeException("Accounts don't exist that should!", e);
-            }
-        }
+        linkAll(repository.getAllUsers(), retVal);
+
         return retVal;
     }
 
+    /**
+     * Returns every account without its owners or transactions, read from the database as they are iterated over
+     * so large reports run in constant memory. The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the accounts
+     */
+    @Override
+    public CloseableIterator<Account> streamAllAccounts() {
+        return repository.streamAllAccounts();
+    }
+
     /**
      * Given a user gets all the accounts the user owns
      * @param user - The user to with which to get all accounts owned
@@ -289,62 +339,43 @@ public class BankServiceImplementation implements BankService{
             throw new ResourceNotFoundException("Malformed user");
 
         MyArrayList<Account> retVal = repository.getAllAccounts(user);
-        for(Account account: retVal) {
-            account.setOwners(repository.getAllOwners(account));
-            account.setTransactions(repository.getAllTransactions(account));
-        }
+        for(Account account: retVal)
+            loadLazily(account);
+
         return retVal;
     }
 
     /**
      * Given a new transaction, check to make sure you have the necessary funds,
      * then if they are available add the transaction to the database, and deduct the
-     * necessary funds, or if they are not available return null
+     * necessary funds. The check, the transfer and the record happen in one database transaction
      * @param newTransaction - The new Transaction in question
-     * @return - The transaction made, if one was made
+     * @return - true if the transaction was made
      */
     @Override
     public boolean sendTransaction(Transaction newTransaction) {
 
-        if(newTransaction == null)
+        if(newTransaction == null || newTransaction.getFrom() == null || newTransaction.getAmount() == null)
+            return false;
+        // only positive amounts can be sent
+        if(newTransaction.getAmount().signum() <= 0)
+            return false;
+        // an account can't send funds to itself
+        if(newTransaction.getFrom().equals(newTransaction.getTo()))
+            return false;
+        // every id must be in the bank's format, even for accounts outside the bank
+        if(!isHexId(newTransaction.getFrom()) ||
+                (newTransaction.getTo() != null && !isHexId(newTransaction.getTo())))
             return false;
 
-        // get the Account the funds are going to
-        Account to;
-        try {
-            to = getAccount(newTransaction.getTo());
-        }catch (ResourceNotFoundException e) { // the funds are being transferred externally
-            to = null;
-        }
-
-        // Get the from account and update the funds
-        // if there are necessary funds update the accounts and record the transaction
-        Account from;
+        // The database checks the from account is controlled by the bank, active and has the funds,
+        // then moves the funds and records the transaction all at once
+        StripedLockManager.Handle lock = locks.lock(newTransaction.getFrom(), newTransaction.getTo());
         try {
-            // get the account making the transaction - if it throws an exception, the bank doesn't control it
-            from = getAccount(newTransaction.getFrom());
-            // test to see if the funds exist And the account does not have a hold
-            if(from.isActive() && from.getBalance().compareTo(newTransaction.getAmount()) > -1 &&
-                    newTransaction.getAmount().compareTo(new BigDecimal(0)) > 0 ) {
-                // update the funds from the account making the transaction
-                from.setBalance(from.getBalance().subtract(newTransaction.getAmount()));
-                if (to != null) // if the bank controls the to account, update the funds
-                    to.setBalance(to.getBalance().add(newTransaction.getAmount()));
-                // add the transaction to the database
-                Transaction retVal = repository.addTransaction(newTransaction);
-                    if(retVal != null) { // if the transaction worked update accounts
-                        repository.updateAccount(from);
-                        if(to != null) // if the to account is internal, update account
-                            repository.updateAccount(to);
-                        return  true;
-                    }
-            }
-        } catch (ResourceNotFoundException e) // The bank does not control the account making the transaction
-        {
-            return false;
+            return repository.transfer(newTransaction) != null;
+        } finally {
+            lock.close();
         }
-
-        return false;
     }
 
     /**
@@ -355,6 +386,8 @@ public class BankServiceImplementation implements BankService{
      */
     @Override
     public Transaction getTransaction(String transactionId) throws ResourceNotFoundException {
+        if(!isHexId(transactionId))
+            throw new ResourceNotFoundException("Malformed transaction id");
         return repository.getTransaction(transactionId);
     }
 
@@ -393,6 +426,16 @@ public class BankServiceImplementation implements BankService{
         return repository.getAllTransactions();
     }
 
+    /**
+     * Returns every transaction, read from the database as they are iterated over so large exports run in
+     * constant memory. The iterator must be closed if it is not read to the end
+     * @return - An iterator over all the transactions
+     */
+    @Override
+    public CloseableIterator<Transaction> streamAllTransactions() {
+        return repository.streamAllTransactions();
+    }
+
     /**
      * Given a User gets all the transactions owned by that user
      * @param user - the user with which to get all the transactions
@@ -402,7 +445,7 @@ public class BankServiceImplementation implements BankService{
     public MyLinkedList<Transaction> getAllTransactions(User user) throws ResourceNotFoundException {
 
         // Make sure the username is valid
-        if(user == null || !user.getUsername().matches("[a-zA-Z0-9._\\-]{1,25}"))
+        if(user == null || !isUsername(user.getUsername()))
             throw new ResourceNotFoundException("Malformed user object");
 
         return repository.getAllTransactions(user);
@@ -417,12 +460,89 @@ public class BankServiceImplementation implements BankService{
     public MyLinkedList<Transaction> getAllTransactions(Account account) throws ResourceNotFoundException {
 
         // Make sure the account is valid
-        if(account == null || account.getAccountID() == null || !account.getAccountID().matches("[a-f0-9]{64}"))
+        if(account == null || !isHexId(account.getAccountID()))
             throw new ResourceNotFoundException("Malformed Account id");
 
         return repository.getAllTransactions(account);
     }
 
+    /**
+     * Given a User gets all the transactions owned by that user, sorted by when they were made
+     * so they can be walked in either direction or between two times
+     * @param user - the user with which to get all the transactions
+     * @return - the transactions ordered from oldest to newest
+     * @throws ResourceNotFoundException
+     */
+    @Override
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(User user) throws ResourceNotFoundException {
+
+        // Make sure the username is valid
+        if(user == null || !isUsername(user.getUsername()))
+            throw new ResourceNotFoundException("Malformed user object");
+
+        return repository.getTransactionHistory(user);
+    }
+
+    /**
+     * Given an account, get all the transactions of that account, sorted by when they were made
+     * so they can be walked in either direction or between two times
+     * @param account - the account with which to get all its transactions
+     * @return - the transactions ordered from oldest to newest
+     * @throws ResourceNotFoundException
+     */
+    @Override
+    public MySkipList<Timestamp, Transaction> getTransactionHistory(Account account)
+            throws ResourceNotFoundException {
+
+        // Make sure the account is valid
+        if(account == null || !isHexId(account.getAccountID()))
+            throw new ResourceNotFoundException("Malformed Account id");
+
+        return repository.getTransactionHistory(account);
+    }
+
+    /**
+     * Given a User gets one page of the transactions owned by that user, newest first
+     * @param user - the user with which to get the transactions
+     * @param continuationToken - the token of the previous page, or null for the first page
+     * @param pageSize - the most transactions to return, between 1 and 100
+     * @return - The page of transactions along with the token for the next page
+     * @throws ResourceNotFoundException
+     */
+    @Override
+    public TransactionPage getTransactionPage(User user, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+
+        // Make sure the username is valid
+        if(user == null || !isUsername(user.getUsername()))
+            throw new ResourceNotFoundException("Malformed user object");
+        if(pageSize < 1 || pageSize > 100)
+            throw new ResourceNotFoundException("Malformed page size");
+
+        return repository.getTransactionPage(user, continuationToken, pageSize);
+    }
+
+    /**
+     * Given an account gets one page of the transactions of that account, newest first
+     * @param account - the account with which to get the transactions
+     * @param continuationToken - the token of the previous page, or null for the first page
+     * @param pageSize - the most transactions to return, between 1 and 100
+     * @return - The page of transactions along with the token for the next page
+     * @throws ResourceNotFoundException
+     */
+    @Override
+    public TransactionPage getTransactionPage(Account account, String continuationToken, int pageSize)
+            throws ResourceNotFoundException {
+
+        // Make sure the account is valid
+        if(account == null || !isHexId(account.getAccountID()))
+            throw new ResourceNotFoundException("Malformed Account id");
+        if(pageSize < 1 || pageSize > 100)
+            throw new ResourceNotFoundException("Malformed page size");
+
+        return repository.getTransactionPage(account, continuationToken, pageSize);
+    }
+
     /**
      * Given an account, and a user, gives the account a new owner
      * @param account - the account to give an owner
@@ -491,7 +611,7 @@ public class BankServiceImplementation implements BankService{
     public boolean usernameIsUnique(String username) {
 
         // Make sure the username is valid
-        if(username == null || !username.matches("[a-zA-Z0-9._\\-]{1,25}"))
+        if(!isUsername(username))
             return false;
 
         try {
@@ -509,19 +629,27 @@ public class BankServiceImplementation implements BankService{
      * @return - Returns true if the operation was successful
      */
     @Override
-    public boolean makeDeposit(Account account, BigDecimal amount) {
+    public boolean makeDeposit(Account account, Money amount) {
 
-        try {
-            account = getAccount(account.getAccountID());
-            account.setBalance(account.getBalance().add(amount));
-            repository.addTransaction(
+        if(!isValidEntry(account, amount))
+            return false;
+
+        GroupCommitLedger group = ledger;
+        if(group != null) // the database adds to the latest balance, so no lock or retry is needed
+            return group.submit(
                     new Transaction(new Date(System.currentTimeMillis()), amount, null, account.getAccountID()));
-            repository.updateAccount(account);
-        } catch (ResourceNotFoundException e) {
-            return false; // the account does not exist
-        }
 
-        return true;
+        StripedLockManager.Handle lock = locks.lock(account.getAccountID());
+        try {
+            return changeAccount(account.getAccountID(), current -> {
+                current.setBalance(current.getBalance().add(amount));
+                repository.updateAccount(current,
+                        new Transaction(new Date(System.currentTimeMillis()), amount, null, current.getAccountID()));
+                return true;
+            });
+        } finally {
+            lock.close();
+        }
     }
 
     /**
@@ -531,22 +659,40 @@ public class BankServiceImplementation implements BankService{
      * @return - Returns true if the operation was successful
      */
     @Override
-    public boolean makeWithdrawal(Account account, BigDecimal amount) {
+    public boolean makeWithdrawal(Account account, Money amount) {
 
+        if(!isValidEntry(account, amount))
+            return false;
+
+        GroupCommitLedger group = ledger;
+        if(group != null) // the database checks the latest balance covers it
+            return group.submit(
+                    new Transaction(new Date(System.currentTimeMillis()), amount, account.getAccountID(), null));
+
+        StripedLockManager.Handle lock = locks.lock(account.getAccountID());
         try {
-            // make sure the user is valid
-            account = getAccount(account.getAccountID());
-            if(account.getBalance().compareTo(amount) > -1) { // if there are enough funds
-                account.setBalance(account.getBalance().subtract(amount));
-                repository.addTransaction(
-                        new Transaction(new Date(System.currentTimeMillis()), amount, account.getAccountID(), null));
-                return repository.updateAccount(account) != null;
-            }
-        } catch (ResourceNotFoundException e) {
-            return false; // the account does not exist
+            return changeAccount(account.getAccountID(), current -> {
+                if(current.getBalance().compareTo(amount) < 0) // if there aren't enough funds
+                    return false;
+                current.setBalance(current.getBalance().subtract(amount));
+                return repository.updateAccount(current,
+                        new Transaction(new Date(System.currentTimeMillis()), amount, current.getAccountID(), null))
+                        != null;
+            });
+        } finally {
+            lock.close();
         }
+    }
 
-        return false;
+    /**
+     * Checks a deposit or withdrawal before it is made. Entries sent to the ledger share a batch with other
+     * callers, so a malformed one has to be refused here rather than fail in the database
+     * @param account - The account the money goes into or comes out of
+     * @param amount - The amount of money
+     * @return - true if the account id is in the bank's format and the amount is positive
+     */
+    private static boolean isValidEntry(Account account, Money amount) {
+        return account != null && isHexId(account.getAccountID()) && amount != null && amount.signum() > 0;
     }
 
     /**
@@ -556,19 +702,18 @@ public class BankServiceImplementation implements BankService{
      */
     @Override
     public boolean holdAccount(Account account) {
+        StripedLockManager.Handle lock = locks.lock(account.getAccountID());
         try {
-            // Make sure the account exists
-            account = getAccount(account.getAccountID());
-            if(account.isActive()) {
-                account.setActive(false);
-                repository.updateAccount(account);
+            return changeAccount(account.getAccountID(), current -> {
+                if(!current.isActive())
+                    return false; // The account already has a hold on it
+                current.setActive(false);
+                repository.updateAccount(current);
                 return true; // successfully put a hold on the account
-            }
-        } catch (ResourceNotFoundException e) {
-            return false; // the account doesn't exist
+            });
+        } finally {
+            lock.close();
         }
-
-        return false; // The account already has a hold on it
     }
 
     /**
@@ -578,19 +723,67 @@ public class BankServiceImplementation implements BankService{
      */
     @Override
     public boolean removeHold(Account account) {
+        StripedLockManager.Handle lock = locks.lock(account.getAccountID());
         try {
-            // Make sure the account exists
-            account = getAccount(account.getAccountID());
-            if(!account.isActive()) {
-                account.setActive(true);
-                repository.updateAccount(account);
+            return changeAccount(account.getAccountID(), current -> {
+                if(current.isActive())
+                    return false; // The doesn't have a hold on it
+                current.setActive(true);
+                repository.updateAccount(current);
                 return true; // successfully took a hold off the account
+            });
+        } finally {
+            lock.close();
+        }
+    }
+
+    /**
+     * A change to the latest copy of an account, written back with a compare and set
+     */
+    private interface AccountChange {
+        boolean apply(Account current) throws ResourceNotFoundException;
+    }
+
+    /**
+     * Reads the account and applies the change to it. If another writer changed the account in between,
+     * the account is read again and the change redone, waiting a random and growing time between attempts
+     * so racing writers spread out
+     * @param accountId - The account to change
+     * @param change - The change to make
+     * @return - The result of the change, or false if the id is malformed, the account doesn't exist or
+     * it kept changing underneath
+     */
+    private boolean changeAccount(String accountId, AccountChange change) {
+
+        if(!isHexId(accountId))
+            return false; // no account could have this id
+
+        for(int attempt = 1; ; ++attempt) {
+            try {
+                return change.apply(repository.getAccount(accountId));
+            } catch (ResourceNotFoundException e) {
+                return false; // the account does not exist
+            } catch (OptimisticLockException e) {
+                if(attempt == MAX_ATTEMPTS || !backOff(attempt))
+                    return false;
             }
-        } catch (ResourceNotFoundException e) {
-            return false; // the account doesn't exist
         }
+    }
 
-        return false; // The doesn't have a hold on it
+    /**
+     * Sleeps for a random time up to an exponentially growing cap
+     * @param attempt - The attempt that just failed, starting at 1
+     * @return - false if the thread was interrupted while waiting
+     */
+    private static boolean backOff(int attempt) {
+        long cap = Math.min(BACKOFF_MAX_MILLIS, BACKOFF_BASE_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     /**
@@ -614,6 +807,117 @@ public class BankServiceImplementation implements BankService{
         return null; // the password was incorrect
     }
 
+    /**
+     * Sets up the accounts and transactions of a user to be loaded the first time they are used,
+     * so looking up a user only costs a single query
+     * @param user - The user to set up
+     * @return - The same user
+     */
+    private User loadLazily(User user) {
+        user.setAccountsLoader(() -> {
+            try {
+                return getAllAccounts(user);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("Accounts don't exist that should!", e);
+            }
+        });
+        user.setTransactionsLoader(() -> {
+            try {
+                return getAllTransactions(user);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("User doesn't exist that should!", e);
+            }
+        });
+        return user;
+    }
+
+    /**
+     * Sets up the owners and transactions of an account to be loaded the first time they are used,
+     * so looking up an account only costs a single query
+     * @param account - The account to set up
+     * @return - The same account
+     */
+    private Account loadLazily(Account account) {
+        account.setOwnersLoader(() -> {
+            try {
+                return getAllOwners(account);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("Account doesn't exist that should!", e);
+            }
+        });
+        account.setTransactionsLoader(() -> {
+            try {
+                return repository.getAllTransactions(account);
+            } catch (ResourceNotFoundException e) {
+                throw new RuntimeException("Account doesn't exist that should!", e);
+            }
+        });
+        return account;
+    }
+
+    /**
+     * Given every user and every account, loads all the ownership links and transactions in two more queries
+     * and links everything together in memory, rather than querying the owners and history of each user and
+     * account one at a time
+     * @param users - Every user, their accounts and transactions are filled in
+     * @param accounts - Every account, their owners and transactions are filled in
+     */
+    private void linkAll(MyArrayList<User> users, MyArrayList<Account> accounts) {
+
+        HashMap<String, User> usersByName = new HashMap<>();
+        for(User user : users) {
+            user.setAccounts(new MyArrayList<>());
+            user.setTransactions(new MyLinkedList<>());
+            usersByName.put(user.getUsername(), user);
+        }
+
+        HashMap<String, Account> accountsById = new HashMap<>();
+        for(Account account : accounts) {
+            account.setOwners(new MyArrayList<>());
+            account.setTransactions(new MyLinkedList<>());
+            accountsById.put(account.getAccountID(), account);
+        }
+
+        for(UserAccount link : repository.getAllUserAccounts()) {
+            User user = usersByName.get(link.getUsername());
+            Account account = accountsById.get(link.getAccountID());
+            if(user != null && account != null) {
+                user.getAccounts().add(account);
+                account.getOwners().add(user);
+            }
+        }
+
+        // The transactions come newest first, so appending keeps every history in order
+        for(Transaction transaction : repository.getAllTransactions()) {
+            Account from = transaction.getFrom() == null ? null : accountsById.get(transaction.getFrom());
+            Account to = transaction.getTo() == null ? null : accountsById.get(transaction.getTo());
+            if(to == from)
+                to = null;
+
+            if(from != null) {
+                from.getTransactions().add(transaction);
+                for(User owner : from.getOwners())
+                    owner.getTransactions().add(transaction);
+            }
+            if(to != null) {
+                to.getTransactions().add(transaction);
+                for(User owner : to.getOwners())
+                    if(from == null || !isOwner(from, owner)) // don't list a transfer between own accounts twice
+                        owner.getTransactions().add(transaction);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the given user is one of the already loaded owners of the account
+     */
+    private static boolean isOwner(Account account, User user) {
+        for(User owner : account.getOwners())
+            if(owner == user)
+                return true;
+        return false;
+    }
+
     /**
      * Returns if there is a connection to the data storage
      * @return - true if the connection is established
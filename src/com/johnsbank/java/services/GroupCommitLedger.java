@@ -0,0 +1,276 @@
+package com.johnsbank.java.services;
+
+import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.repositories.BankRepository;
+import com.johnsbank.java.utilities.BatchResult;
+import com.johnsbank.java.utilities.LatencyHistogram;
+import com.johnsbank.java.utilities.Metrics;
+import com.johnsbank.java.utilities.MyArrayList;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gathers deposits and withdrawals from many callers and writes them to the database together, one commit
+ * for a whole group instead of one per call. A group is written once it holds the most entries allowed or once
+ * its first entry has waited the longest delay allowed, whichever comes first. Each caller is only answered
+ * after the group holding its entry has been committed, so nothing is acknowledged before it is durable
+ */
+public class GroupCommitLedger {
+
+    private final BankRepository repository;
+    private final int maxBatch;                 // The most entries written in one commit
+    private final long maxDelayNanos;           // The longest an entry waits for others to join it
+    private final LinkedBlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private final Object lifecycle = new Object();  // Held while queueing so nothing is queued after shutdown
+    private volatile boolean running = true;
+
+    // Queued last by shutdown, the flusher stops once it reaches it. The flusher is never interrupted,
+    // an interrupt landing inside JDBC would fail the writes that follow it
+    private static final Entry SHUTDOWN = new Entry(null);
+
+    // Metrics of the ledger
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * A deposit or withdrawal waiting to be written along with the caller waiting on it
+     */
+    private static class Entry {
+        final Transaction transaction;
+        final long queuedAt = System.nanoTime();
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Entry(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+
+    /**
+     * Creates the ledger and starts writing groups
+     * @param repository - Where the groups are written
+     * @param maxBatch - The most entries written in one commit
+     * @param maxDelayMillis - The longest an entry waits for others to join it in milliseconds
+     */
+    public GroupCommitLedger(BankRepository repository, int maxBatch, long maxDelayMillis) {
+        if(maxBatch < 1)
+            throw new IllegalArgumentException("A group must hold at least one entry!");
+        this.repository = repository;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+
+        flusher = new Thread(this::run, "ledger-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues a deposit or withdrawal and waits until the group holding it is committed
+     * @param transaction - A deposit, with no from account, or a withdrawal, with no to account
+     * @return - true if it was applied, false if the account doesn't exist or can't cover a withdrawal
+     */
+    public boolean submit(Transaction transaction) {
+
+        Entry entry = new Entry(transaction);
+        synchronized (lifecycle) {
+            if(!running)
+                throw new IllegalStateException("The ledger has been shut down!");
+            queue.add(entry);
+        }
+        try {
+            return entry.result.get();
+        } catch (InterruptedException e) {
+            // the entry is still written, the caller just stops waiting on it
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException("Could not write to the ledger!", e.getCause());
+        }
+    }
+
+    /**
+     * Stops taking entries, writes any still queued and waits for the flusher to finish
+     */
+    public void shutdown() {
+        synchronized (lifecycle) {
+            if(running) {
+                running = false;
+                queue.add(SHUTDOWN);
+            }
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        refuseQueued();
+    }
+
+    /**
+     * Stops taking entries and answers every entry still queued with an error rather than leave it waiting
+     */
+    private void refuseQueued() {
+        synchronized (lifecycle) {
+            running = false;
+        }
+        Entry late;
+        while((late = queue.poll()) != null)
+            late.result.completeExceptionally(new IllegalStateException("The ledger has been shut down!"));
+    }
+
+    /**
+     * Gathers groups of entries and writes them until shut down and drained
+     */
+    private void run() {
+        try {
+            gatherAndFlush();
+        } finally {
+            // if the flusher stops for any reason, no caller may be left waiting on it
+            refuseQueued();
+        }
+    }
+
+    private void gatherAndFlush() {
+
+        MyArrayList<Entry> group = new MyArrayList<>(groupSize());
+        boolean stopping = false;
+        while(!stopping) {
+            try {
+                Entry first = queue.take();
+                if(first == SHUTDOWN)
+                    break; // everything queued before shutdown has been written
+                group.add(first);
+
+                // let others join until the group is full or the first entry has waited long enough
+                long deadline = first.queuedAt + maxDelayNanos;
+                while(group.getCount() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if(next == null)
+                        break;
+                    if(next == SHUTDOWN) {
+                        stopping = true; // write this last group, nothing is queued after it
+                        break;
+                    }
+                    group.add(next);
+                }
+            } catch (InterruptedException e) {
+                // nothing is meant to interrupt the flusher, carry on with whatever was gathered
+            }
+
+            if(group.getCount() > 0) {
+                flush(group);
+                group = new MyArrayList<>(groupSize());
+            }
+        }
+    }
+
+    /**
+     * The room a new group starts with, a full group unless the limit is too large to set aside up front
+     */
+    private int groupSize() {
+        return Math.min(maxBatch, 1024);
+    }
+
+    /**
+     * Writes a group in a single commit and answers every caller in it. If the group can't be written as a whole,
+     * each entry is written on its own so only the entries at fault fail
+     */
+    private void flush(MyArrayList<Entry> group) {
+
+        MyArrayList<Transaction> transactions = new MyArrayList<>(group.getCount());
+        for(Entry entry : group)
+            transactions.add(entry.transaction);
+
+        BatchResult result;
+        try {
+            result = repository.applyTransactions(transactions);
+        } catch (Throwable e) {
+            for(Entry entry : group)
+                flushAlone(entry);
+            return;
+        }
+
+        batches.incrementAndGet();
+        long now = System.nanoTime();
+        for(int i = 0; i < group.getCount(); ++i) {
+            Entry entry = group.get(i);
+            entry.result.complete(result.succeeded(i));
+            recordLatency(now - entry.queuedAt);
+        }
+    }
+
+    /**
+     * Writes a single entry in its own commit and answers its caller
+     */
+    private void flushAlone(Entry entry) {
+
+        MyArrayList<Transaction> transactions = new MyArrayList<>(1);
+        transactions.add(entry.transaction);
+
+        try {
+            BatchResult result = repository.applyTransactions(transactions);
+            batches.incrementAndGet();
+            entry.result.complete(result.succeeded(0));
+            recordLatency(System.nanoTime() - entry.queuedAt);
+        } catch (Throwable e) {
+            entry.result.completeExceptionally(e);
+        }
+    }
+
+    private void recordLatency(long latency) {
+        entries.incrementAndGet();
+        totalLatencyNanos.addAndGet(latency);
+        latencies.record(latency);
+        Metrics.raiseMax(maxLatencyNanos, latency);
+    }
+
+    public int getQueuedCount() { return queue.size(); }
+    public long getEntryCount() { return entries.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public long getMaxLatencyNanos() { return maxLatencyNanos.get(); }
+
+    /**
+     * Returns how many entries were written per commit on average
+     * @return - The average group size
+     */
+    public double getAverageBatchSize() {
+        long count = batches.get();
+        return count == 0 ? 0 : (double) entries.get() / count;
+    }
+
+    /**
+     * Returns the mean time from an entry being queued to it being committed
+     * @return - The average latency in nanoseconds
+     */
+    public long getAverageLatencyNanos() {
+        long count = entries.get();
+        return count == 0 ? 0 : totalLatencyNanos.get() / count;
+    }
+
+    /**
+     * Returns the time from being queued to being committed that the given percent of entries did not exceed
+     * @param percentile - The percent, such as 99 for the p99
+     * @return - The latency in nanoseconds, to within an eighth of its value
+     */
+    public long getLatencyPercentileNanos(double percentile) {
+        return latencies.getPercentile(percentile);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommitLedger[entries=" + getEntryCount() + ", batches=" + getBatchCount() +
+                ", avgBatchSize=" + getAverageBatchSize() + ", avgLatencyNanos=" + getAverageLatencyNanos() +
+                ", p99LatencyNanos=" + getLatencyPercentileNanos(99) +
+                ", maxLatencyNanos=" + getMaxLatencyNanos() + "]";
+    }
+}
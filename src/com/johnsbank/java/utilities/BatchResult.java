@@ -0,0 +1,88 @@
+package com.johnsbank.java.utilities;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The outcome of every row sent through a batch, in the order the rows were given. An item that ran without
+ * error but changed no rows counts as neither succeeded nor failed
+ */
+public class BatchResult {
+
+    private int[] rowCounts = new int[16];                              // Rows changed by each item
+    private int count = 0;                                              // How many items were sent
+    private int succeeded = 0;                                          // How many of them were written
+    private int failed = 0;                                             // How many of them failed
+    private final Map<Integer, SQLException> failures = new HashMap<>(); // Why each failed item failed
+
+    /**
+     * Records the outcome of the next item
+     * @param rowCount - the rows the item changed, or one of the Statement constants
+     */
+    void add(int rowCount) {
+        if(count == rowCounts.length) {
+            int[] grown = new int[rowCounts.length * 2];
+            System.arraycopy(rowCounts, 0, grown, 0, count);
+            rowCounts = grown;
+        }
+        rowCounts[count++] = rowCount;
+        if(isWritten(rowCount))
+            ++succeeded;
+    }
+
+    /**
+     * Records that the next item failed
+     * @param cause - why the item failed
+     */
+    void addFailure(SQLException cause) {
+        failures.put(count, cause);
+        ++failed;
+        add(Statement.EXECUTE_FAILED);
+    }
+
+    /**
+     * Returns whether the item at the given index was written
+     * @param index - the index of the item in the order it was given
+     * @return - true if the item was written
+     */
+    public boolean succeeded(int index) {
+        if(index < 0 || index >= count)
+            return false;
+        return isWritten(rowCounts[index]);
+    }
+
+    private static boolean isWritten(int rowCount) {
+        return rowCount > 0 || rowCount == Statement.SUCCESS_NO_INFO;
+    }
+
+    /**
+     * Returns why the item at the given index failed
+     * @param index - the index of the item in the order it was given
+     * @return - The exception raised by the item, or null if it didn't fail
+     */
+    public SQLException getFailure(int index) {
+        return failures.get(index);
+    }
+
+    /**
+     * Returns the rows changed by the item at the given index
+     * @param index - the index of the item in the order it was given
+     * @return - the rows changed, or one of Statement.SUCCESS_NO_INFO and Statement.EXECUTE_FAILED
+     */
+    public int getRowCount(int index) {
+        if(index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("No item at index " + index);
+        return rowCounts[index];
+    }
+
+    public int size() { return count; }
+    public int getFailedCount() { return failed; }
+    public int getSucceededCount() { return succeeded; }
+
+    @Override
+    public String toString() {
+        return "BatchResult[size=" + count + ", succeeded=" + getSucceededCount() + ", failed=" + failed + "]";
+    }
+}
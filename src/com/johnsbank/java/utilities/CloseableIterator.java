@@ -0,0 +1,17 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Iterator;
+
+/**
+ * An iterator that holds on to a resource until it is either exhausted or closed, meant to be used in a
+ * try-with-resources block so the resource is let go even if iteration stops early
+ * @param <T> - The type of element being iterated over
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Lets go of the resource behind the iterator, calling it more than once has no effect
+     */
+    @Override
+    void close();
+}
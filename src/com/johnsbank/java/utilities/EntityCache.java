@@ -0,0 +1,178 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of entities keyed by their identifier. Once full the least recently used entity is evicted,
+ * and entities older than the time to live are treated as missing so changes made elsewhere are picked up.
+ * A caller filling a miss takes a stamp before reading the entity and puts it with that stamp, so an entity
+ * read before an invalidation can never be cached after it
+ * @param <K> - The type of the identifier
+ * @param <V> - The type of the entity
+ */
+public class EntityCache<K, V> {
+
+    private static final int INVALIDATION_SLOTS = 256;  // A power of two
+
+    private final int maxSize;          // The most entities held at once
+    private final long ttlNanos;        // How long an entity is trusted after being cached
+
+    // The stamp of the latest invalidation, and of the latest invalidation of the keys on each slot
+    private long stamp = 0;
+    private final long[] invalidatedAt = new long[INVALIDATION_SLOTS];
+
+    // Metrics of the cache
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+    private long invalidations = 0;
+    private long stalePuts = 0;
+
+    // Access ordered so the eldest entry is always the least recently used entity
+    private final LinkedHashMap<K, CacheEntry<V>> entries =
+            new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+            if(size() <= maxSize)
+                return false;
+            ++evictions;
+            return true;
+        }
+    };
+
+    /**
+     * A cached entity along with when it stops being trusted
+     */
+    private static class CacheEntry<V> {
+        final V value;
+        final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates an empty cache
+     * @param maxSize - The most entities held at once
+     * @param ttlMillis - How long an entity is trusted after being cached in milliseconds
+     */
+    public EntityCache(int maxSize, long ttlMillis) {
+        if(maxSize < 1)
+            throw new IllegalArgumentException("The cache must hold at least one entity!");
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Returns the cached entity for the given identifier
+     * @param key - The identifier of the entity
+     * @return - The entity, or null if it is not cached or has expired
+     */
+    public synchronized V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if(entry == null) {
+            ++misses;
+            return null;
+        }
+        if(System.nanoTime() - entry.expiresAt > 0) {
+            entries.remove(key);
+            ++expirations;
+            ++misses;
+            return null;
+        }
+        ++hits;
+        return entry.value;
+    }
+
+    /**
+     * Returns the stamp to take before reading an entity that will be put in the cache
+     * @return - The stamp of the latest invalidation
+     */
+    public synchronized long stamp() {
+        return stamp;
+    }
+
+    /**
+     * Caches an entity under the given identifier, replacing any entity already cached under it
+     * @param key - The identifier of the entity
+     * @param value - The entity
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Caches an entity read after the stamp was taken, unless its identifier was invalidated since
+     * @param key - The identifier of the entity
+     * @param value - The entity
+     * @param readStamp - The stamp taken before the entity was read
+     * @return - true if the entity was cached, false if it may already be out of date
+     */
+    public synchronized boolean put(K key, V value, long readStamp) {
+        if(invalidatedAt[slotOf(key)] > readStamp) {
+            ++stalePuts;
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * Removes the entity with the given identifier, called whenever the entity is changed or deleted
+     * @param key - The identifier of the entity
+     */
+    public synchronized void invalidate(K key) {
+        invalidatedAt[slotOf(key)] = ++stamp;
+        if(entries.remove(key) != null)
+            ++invalidations;
+    }
+
+    /**
+     * Removes every entity from the cache
+     */
+    public synchronized void clear() {
+        Arrays.fill(invalidatedAt, ++stamp);
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    /**
+     * Spreads the hash of the key over the invalidation slots, keys sharing a slot share their stamp
+     */
+    private static int slotOf(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        return h & (INVALIDATION_SLOTS - 1);
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+    public synchronized long getExpirationCount() { return expirations; }
+    public synchronized long getInvalidationCount() { return invalidations; }
+    public synchronized long getStalePutCount() { return stalePuts; }
+
+    /**
+     * Returns the share of lookups that were found in the cache
+     * @return - The hit ratio between 0 and 1
+     */
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EntityCache[size=" + entries.size() + ", hits=" + hits + ", misses=" + misses +
+                ", hitRatio=" + getHitRatio() + ", evictions=" + evictions + ", expirations=" + expirations +
+                ", invalidations=" + invalidations + ", stalePuts=" + stalePuts + "]";
+    }
+}
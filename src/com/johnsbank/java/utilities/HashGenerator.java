@@ -1,6 +1,6 @@
 package com.johnsbank.java.utilities;
 
-import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -9,22 +9,28 @@ public class HashGenerator {
     private static final HashGenerator instance = new HashGenerator();
     private HashGenerator() {}
     public static HashGenerator getInstance() { return instance;}
-    private static MessageDigest SHA256Alg;
 
-    private static final char[] HEX_ARRAY = { // Used for transforming the Hash byte data into human-readable form
-            '0', '1', '2', '3',
-            '4', '5', '6', '7',
-            '8', '9', 'a', 'b',
-            'c', 'd', 'e', 'f'};
+    // The length of a SHA-256 hash in bytes
+    public static final int HASH_LENGTH = 32;
 
-    {
+    // A MessageDigest can only hash one message at a time, so every thread gets its own
+    private static final ThreadLocal<MessageDigest> SHA256Alg = ThreadLocal.withInitial(() -> {
         try {
-            SHA256Alg = MessageDigest.getInstance("SHA-256");
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("Error: SHA-256 could not be used!", e);
         }
+    });
 
+    /**
+     * The buffers a thread reuses between hashes, so hashing a message allocates only the returned string
+     */
+    private static final class Scratch {
+        byte[] message = new byte[256];                 // The message encoded as UTF-8, grown as needed
+        final byte[] hash = new byte[HASH_LENGTH];
+        final char[] hex = new char[HASH_LENGTH * 2];
     }
+    private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
 
     /**
      * The method that securely Hashes User's confidential information
@@ -32,29 +38,120 @@ public class HashGenerator {
      * @return A String holding the Hash of the message passed in
      */
     public String getMessageDigest(String msg){
+        Scratch buffers = scratch.get();
+        getMessageDigest(msg, buffers.hex, 0);
+        return new String(buffers.hex);
+    }
+
+    /**
+     * Hashes a message held in a character array, so secrets such as passwords never have to become a String
+     * @param msg - The characters that will be hashed
+     * @return A String holding the Hash of the message passed in
+     */
+    public String getMessageDigest(char[] msg){
+        Scratch buffers = scratch.get();
+        int length = encodeUtf8(new CharArraySequence(msg), buffers);
+        digest(buffers.message, 0, length, buffers.hash, 0);
+        Hex.encode(buffers.hash, 0, HASH_LENGTH, buffers.hex, 0);
+        return new String(buffers.hex);
+    }
 
-        // Hash the message to securely save and compare
-        byte[] hash = SHA256Alg.digest(msg.getBytes(StandardCharsets.UTF_8));
-        return bytesToHex(hash);
+    /**
+     * Hashes the UTF-8 form of a message and writes the hash as hexadecimal into a caller's buffer,
+     * allocating nothing
+     * @param msg - The message that will be hashed
+     * @param dest - The buffer to write to, 64 characters are written
+     * @param destOffset - Where in the buffer to start writing
+     */
+    public void getMessageDigest(CharSequence msg, char[] dest, int destOffset) {
+        Scratch buffers = scratch.get();
+        int length = encodeUtf8(msg, buffers);
+        digest(buffers.message, 0, length, buffers.hash, 0);
+        Hex.encode(buffers.hash, 0, HASH_LENGTH, dest, destOffset);
     }
 
     /**
-     * Transforms the given byte array into a hexadecimal number in string format
-     * @param bytes the byte array to transform
-     * @return a hexadecimal representation of the array in string format
+     * Hashes the given bytes and writes the raw hash into a caller's buffer, allocating nothing
+     * @param input - The bytes to hash
+     * @param offset - The first byte to hash
+     * @param length - The count of bytes to hash
+     * @param dest - The buffer to write to, HASH_LENGTH bytes are written
+     * @param destOffset - Where in the buffer to start writing
      */
-    private String bytesToHex(byte[] bytes) {
-        // array of characters in ascii form representing the data in byte array
-        char[] hexChars = new char[bytes.length * 2];
-
-        // convert each byte into a hexadecimal value and convert that into ascii format
-        for (int j = 0; j < bytes.length; j++) {
-            int curByte = bytes[j];
-            // bit-shift the byte by 4 to retrieve the higher WORD and use that as an index into the array to convert
-            hexChars[j * 2] = HEX_ARRAY[(curByte >>> 4) & 0x0F];
-            // AND the lower WORD by 16 to isolate it and use that as an index into the array to convert
-            hexChars[j * 2 + 1] = HEX_ARRAY[curByte & 0x0F];
+    public void digest(byte[] input, int offset, int length, byte[] dest, int destOffset) {
+        // checked before anything is hashed so a bad buffer never leaves a half fed digest behind
+        if(destOffset < 0 || dest.length - destOffset < HASH_LENGTH)
+            throw new IllegalArgumentException("The buffer can't hold a hash at " + destOffset);
+
+        MessageDigest alg = SHA256Alg.get();
+        alg.update(input, offset, length);
+        try {
+            alg.digest(dest, destOffset, HASH_LENGTH);
+        } catch (DigestException e) {
+            alg.reset();
+            throw new IllegalStateException("Error: SHA-256 could not finish the hash!", e);
         }
-        return new String(hexChars);
+    }
+
+    /**
+     * Encodes the message as UTF-8 into the thread's message buffer, the same bytes String.getBytes gives
+     * @return - The count of bytes written
+     */
+    private static int encodeUtf8(CharSequence msg, Scratch buffers) {
+
+        int length = msg.length();
+        if(buffers.message.length < length * 3) // no character takes more than three bytes on its own
+            buffers.message = new byte[length * 3];
+        byte[] out = buffers.message;
+
+        int at = 0;
+        for(int i = 0; i < length; ++i) {
+            char c = msg.charAt(i);
+            if(c < 0x80) {
+                out[at++] = (byte) c;
+            } else if(c < 0x800) {
+                out[at++] = (byte) (0xC0 | (c >> 6));
+                out[at++] = (byte) (0x80 | (c & 0x3F));
+            } else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(msg.charAt(i + 1))) {
+                int code = Character.toCodePoint(c, msg.charAt(++i));
+                out[at++] = (byte) (0xF0 | (code >> 18));
+                out[at++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                out[at++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                out[at++] = (byte) (0x80 | (code & 0x3F));
+            } else if(Character.isSurrogate(c)) {
+                out[at++] = '?'; // an unpaired surrogate can't be encoded
+            } else {
+                out[at++] = (byte) (0xE0 | (c >> 12));
+                out[at++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[at++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        return at;
+    }
+
+    /**
+     * Lets a character array be read as a CharSequence without copying it into a String
+     */
+    private static final class CharArraySequence implements CharSequence {
+        private final char[] chars;
+
+        CharArraySequence(char[] chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int length() { return chars.length; }
+
+        @Override
+        public char charAt(int index) { return chars[index]; }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new CharArraySequence(java.util.Arrays.copyOfRange(chars, start, end));
+        }
+
+        @Override
+        public String toString() { return new String(chars); }
     }
 }
@@ -0,0 +1,69 @@
+package com.johnsbank.java.utilities;
+
+/**
+ * Converts identifiers between the raw bytes the database stores and the lowercase hexadecimal shown to users
+ */
+public final class Hex {
+
+    private static final char[] HEX_ARRAY = "0123456789abcdef".toCharArray();
+
+    private Hex() {/* Prevents anyone from instantiating */}
+
+    /**
+     * Transforms the given bytes into lowercase hexadecimal
+     * @param bytes - The bytes to transform, may be null
+     * @return - Two hexadecimal digits per byte, or null if the bytes were null
+     */
+    public static String encode(byte[] bytes) {
+        if(bytes == null)
+            return null;
+
+        char[] hexChars = new char[bytes.length * 2];
+        encode(bytes, 0, bytes.length, hexChars, 0);
+        return new String(hexChars);
+    }
+
+    /**
+     * Writes the given bytes as lowercase hexadecimal into a caller's buffer, allocating nothing
+     * @param src - The bytes to transform
+     * @param srcOffset - The first byte to transform
+     * @param length - The count of bytes to transform
+     * @param dest - The buffer to write to, two digits are written per byte
+     * @param destOffset - Where in the buffer to start writing
+     */
+    public static void encode(byte[] src, int srcOffset, int length, char[] dest, int destOffset) {
+        for(int j = 0; j < length; j++) {
+            int curByte = src[srcOffset + j];
+            dest[destOffset + j * 2] = HEX_ARRAY[(curByte >>> 4) & 0x0F];
+            dest[destOffset + j * 2 + 1] = HEX_ARRAY[curByte & 0x0F];
+        }
+    }
+
+    /**
+     * Transforms hexadecimal, in either case, back into the bytes it represents
+     * @param hex - The hexadecimal to transform, may be null
+     * @return - One byte per two hexadecimal digits, or null if the hexadecimal was null
+     * @throws IllegalArgumentException - if the string is not an even count of hexadecimal digits
+     */
+    public static byte[] decode(String hex) {
+        if(hex == null)
+            return null;
+        if((hex.length() & 1) != 0)
+            throw new IllegalArgumentException("Hexadecimal must have an even count of digits!");
+
+        byte[] bytes = new byte[hex.length() / 2];
+        for(int j = 0; j < bytes.length; j++)
+            bytes[j] = (byte) ((digit(hex.charAt(j * 2)) << 4) | digit(hex.charAt(j * 2 + 1)));
+        return bytes;
+    }
+
+    private static int digit(char c) {
+        if(c >= '0' && c <= '9')
+            return c - '0';
+        if(c >= 'a' && c <= 'f')
+            return c - 'a' + 10;
+        if(c >= 'A' && c <= 'F')
+            return c - 'A' + 10;
+        throw new IllegalArgumentException("'" + c + "' is not a hexadecimal digit!");
+    }
+}
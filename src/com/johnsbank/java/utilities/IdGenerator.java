@@ -0,0 +1,27 @@
+package com.johnsbank.java.utilities;
+
+/**
+ * Makes the unique 32 byte identifiers given to new rows
+ */
+public interface IdGenerator {
+
+    // The length of every identifier in bytes
+    int ID_LENGTH = 32;
+
+    /**
+     * Writes a new identifier into the given buffer
+     * @param dest - The buffer to write to
+     * @param offset - Where in the buffer the identifier starts, ID_LENGTH bytes are written from there
+     */
+    void next(byte[] dest, int offset);
+
+    /**
+     * Returns a new identifier in the hexadecimal form the models hold
+     * @return - The identifier as 64 lowercase hexadecimal digits
+     */
+    default String nextHex() {
+        byte[] id = new byte[ID_LENGTH];
+        next(id, 0);
+        return Hex.encode(id);
+    }
+}
@@ -0,0 +1,261 @@
+package com.johnsbank.java.utilities;
+
+/**
+ * The formatting rules for everything users type into the bank, shared by the services and the menus.
+ * Each check is a single pass over its input that allocates nothing and never backtracks, so a hostile
+ * string costs no more to reject than a good one costs to accept. Every check is false for null
+ */
+public final class InputValidation {
+
+    public static final int USERNAME_MAX_LENGTH = 25;
+    public static final int ID_LENGTH = 64;
+    public static final int ADDRESS_MAX_LENGTH = 100;
+    public static final int PASSWORD_MIN_LENGTH = 8;
+    // The most digits of dollars in an amount, so every valid amount fits in the cents Money holds
+    public static final int AMOUNT_MAX_DIGITS = 15;
+
+    // Every two letter State and Territory code, indexed by (first - 'A') * 26 + (second - 'A')
+    private static final boolean[] STATE_CODES = new boolean[26 * 26];
+    static {
+        String[] codes = {"AL", "AK", "AZ", "AR", "AS", "CA", "CO", "CT", "DE", "DC", "FL", "GA", "GU", "HI", "ID",
+                "IL", "IN", "IA", "KS", "KY", "LA", "ME", "MD", "MA", "MI", "MN", "MS", "MO", "MT", "NE", "NV", "NH",
+                "NJ", "NM", "NY", "NC", "ND", "CM", "OH", "OK", "OR", "PA", "PR", "RI", "SC", "SD", "TN", "TX", "TT",
+                "UT", "VT", "VA", "VI", "WA", "WV", "WI", "WY"};
+        for(String code : codes)
+            STATE_CODES[(code.charAt(0) - 'A') * 26 + (code.charAt(1) - 'A')] = true;
+    }
+
+    private InputValidation() {/* Prevents anyone from instantiating */}
+
+    /**
+     * Checks for an id in the bank's format, 64 lowercase hexadecimal digits
+     * @param id - The id in question
+     * @return - true if the id is in the correct format
+     */
+    public static boolean isHexId(CharSequence id) {
+        if(id == null || id.length() != ID_LENGTH)
+            return false;
+        for(int i = 0; i < ID_LENGTH; ++i) {
+            char at = id.charAt(i);
+            if((at < '0' || at > '9') && (at < 'a' || at > 'f'))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks for a username of 1 to 25 letters, digits, '.', '_' or '-'
+     * @param username - The username in question
+     * @return - true if the username is in the correct format
+     */
+    public static boolean isUsername(CharSequence username) {
+        if(username == null || username.length() < 1 || username.length() > USERNAME_MAX_LENGTH)
+            return false;
+        for(int i = 0; i < username.length(); ++i) {
+            char at = username.charAt(i);
+            if(!isAlphanumeric(at) && at != '.' && at != '_' && at != '-')
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks for a phone number in the form "(xxx) xxx-xxxx"
+     * @param phoneNumber - The phone number in question
+     * @return - true if the phone number is in the correct format
+     */
+    public static boolean isPhoneNumber(CharSequence phoneNumber) {
+        if(phoneNumber == null || phoneNumber.length() != 14)
+            return false;
+        return phoneNumber.charAt(0) == '(' && phoneNumber.charAt(4) == ')' &&
+                phoneNumber.charAt(5) == ' ' && phoneNumber.charAt(9) == '-' &&
+                areDigits(phoneNumber, 1, 4) && areDigits(phoneNumber, 6, 9) && areDigits(phoneNumber, 10, 14);
+    }
+
+    /**
+     * Checks for a zip code in the form "xxxxx" or "xxxxx-xxxx"
+     * @param zipCode - The zip code in question
+     * @return - true if the zip code is in the correct format
+     */
+    public static boolean isZipCode(CharSequence zipCode) {
+        if(zipCode == null)
+            return false;
+        if(zipCode.length() == 5)
+            return areDigits(zipCode, 0, 5);
+        return zipCode.length() == 10 && areDigits(zipCode, 0, 5) &&
+                zipCode.charAt(5) == '-' && areDigits(zipCode, 6, 10);
+    }
+
+    /**
+     * Checks for an SSN in the form "xxx-xx-xxxx"
+     * @param SSN - The SSN in question
+     * @return - true if the SSN is in the correct format
+     */
+    public static boolean isSSN(CharSequence SSN) {
+        return SSN != null && SSN.length() == 11 && SSN.charAt(3) == '-' && SSN.charAt(6) == '-' &&
+                areDigits(SSN, 0, 3) && areDigits(SSN, 4, 6) && areDigits(SSN, 7, 11);
+    }
+
+    /**
+     * Checks for two capital letters, the form every State code is stored in
+     * @param state - The State in question
+     * @return - true if the State is in the correct format
+     */
+    public static boolean isStateFormat(CharSequence state) {
+        return state != null && state.length() == 2 && isCapital(state.charAt(0)) && isCapital(state.charAt(1));
+    }
+
+    /**
+     * Checks for one of the known State and Territory codes
+     * @param state - The State in question
+     * @return - true if the State is a known State or Territory
+     */
+    public static boolean isStateCode(CharSequence state) {
+        return isStateFormat(state) && STATE_CODES[(state.charAt(0) - 'A') * 26 + (state.charAt(1) - 'A')];
+    }
+
+    /**
+     * Checks for the first line of an address, 3 to 100 characters
+     * @param address - The address in question
+     * @return - true if the address is an acceptable length
+     */
+    public static boolean isAddressLine1(CharSequence address) {
+        return address != null && address.length() >= 3 && address.length() <= ADDRESS_MAX_LENGTH;
+    }
+
+    /**
+     * Checks for the second line of an address, the city, of at most 100 characters
+     * @param address - The address in question
+     * @return - true if the address is an acceptable length
+     */
+    public static boolean isAddressLine2(CharSequence address) {
+        return address != null && address.length() <= ADDRESS_MAX_LENGTH;
+    }
+
+    /**
+     * Checks for an email address. The name is letters and digits joined by single '.', '_' or '-'
+     * and is at least 2 characters, the domain is two labels of letters, digits and '-' joined by a '.'
+     * with the last label at least 2 characters
+     * @param email - The email in question
+     * @return - true if the email is in the correct format
+     */
+    public static boolean isEmail(CharSequence email) {
+        if(email == null)
+            return false;
+        int length = email.length();
+
+        // The name, up to the '@'
+        int at = 0;
+        boolean wasSpecial = true; // the name can't start with a special character
+        for(; at < length && email.charAt(at) != '@'; ++at) {
+            char c = email.charAt(at);
+            if(isAlphanumeric(c))
+                wasSpecial = false;
+            else if((c == '.' || c == '_' || c == '-') && !wasSpecial)
+                wasSpecial = true;
+            else
+                return false;
+        }
+        if(at == length || at < 2 || wasSpecial)
+            return false;
+
+        // The domain, exactly one '.' with a label on both sides
+        int dot = -1;
+        for(int i = at + 1; i < length; ++i) {
+            char c = email.charAt(i);
+            if(c == '.') {
+                if(dot != -1)
+                    return false;
+                dot = i;
+            } else if(!isAlphanumeric(c) && c != '-')
+                return false;
+        }
+        return dot > at + 1 && length - dot - 1 >= 2;
+    }
+
+    /**
+     * Checks for a password of at least 8 characters made of letters, digits and {!, @, #, $, %, _}
+     * with at least one capital, one lowercase letter, one number and one special character
+     * @param password - The password in question
+     * @return - true if the password is in the correct format
+     */
+    public static boolean isPassword(CharSequence password) {
+        if(password == null || password.length() < PASSWORD_MIN_LENGTH)
+            return false;
+
+        boolean hasSpecial = false;
+        boolean hasCapital = false;
+        boolean hasLowercase = false;
+        boolean hasNumber = false;
+
+        for(int i = 0; i < password.length(); ++i) {
+            char at = password.charAt(i);
+            if(at >= 'a' && at <= 'z')
+                hasLowercase = true;
+            else if(isCapital(at))
+                hasCapital = true;
+            else if(isDigit(at))
+                hasNumber = true;
+            else if(at == '!' || at == '@' || at == '#' || at == '$' || at == '%' || at == '_')
+                hasSpecial = true;
+            else
+                return false;
+        }
+
+        return hasSpecial && hasCapital && hasLowercase && hasNumber;
+    }
+
+    /**
+     * Checks for an amount of dollars such as "0", "1,000" or "25.50". The dollars have no leading zeros
+     * and, if grouped, use a ',' every three digits, up to AMOUNT_MAX_DIGITS digits in all. The cents,
+     * if given, are two digits
+     * @param amount - The amount in question
+     * @return - true if the amount is in the correct format
+     */
+    public static boolean isAmount(CharSequence amount) {
+        if(amount == null)
+            return false;
+        int length = amount.length();
+
+        // The first group, "0" or one to three digits without a leading zero
+        int i = 0;
+        while(i < length && i < 3 && isDigit(amount.charAt(i)))
+            ++i;
+        if(i == 0 || (amount.charAt(0) == '0' && i > 1))
+            return false;
+
+        // Every following group is a ',' and three digits
+        int digits = i;
+        while(i < length && amount.charAt(i) == ',') {
+            if(i + 4 > length || !areDigits(amount, i + 1, i + 4))
+                return false;
+            i += 4;
+            digits += 3;
+            if(digits > AMOUNT_MAX_DIGITS)
+                return false; // too large to be held as Money
+        }
+
+        if(i == length)
+            return true;
+        return i + 3 == length && amount.charAt(i) == '.' && areDigits(amount, i + 1, length);
+    }
+
+    private static boolean areDigits(CharSequence input, int from, int to) {
+        for(int i = from; i < to; ++i)
+            if(!isDigit(input.charAt(i)))
+                return false;
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isCapital(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return isDigit(c) || isCapital(c) || (c >= 'a' && c <= 'z');
+    }
+}
@@ -1,8 +1,8 @@
 package com.johnsbank.java.utilities;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -18,35 +18,44 @@ public class JDBCConnection {
     }
 
     private static final JDBCConnection instance = new JDBCConnection();
-    private Connection connection;
+    private volatile JDBCConnectionPool pool;
 
     private JDBCConnection() { /* Prevents anyone from instantiating */}
 
-    public Connection getConnection() {
-
-        try {
-        if(connection == null || connection.isValid(30)){
+    /**
+     * Borrows a connection from the pool, the connection must be closed to give it back to the pool
+     * @return - A connection to the database
+     * @throws SQLException - if a connection can't be established
+     */
+    public Connection getConnection() throws SQLException {
+        return getPool().borrow();
+    }
 
-            Properties props = new Properties();
-            try {
-                props.load(JDBCConnection.class.getClassLoader().getResourceAsStream("credentials"));
-            } catch (IOException e) {
-                throw new RuntimeException("You do not have the correct Credentials to access the database!", e);
+    /**
+     * Returns the pool backing the connections, creating it from the credentials on first use
+     * @return - The connection pool
+     */
+    public JDBCConnectionPool getPool() {
+
+        if(pool == null) {
+            synchronized (this) {
+                if(pool == null) {
+                    Properties props = new Properties();
+                    try (InputStream credentials =
+                                 JDBCConnection.class.getClassLoader().getResourceAsStream("credentials")) {
+                        if(credentials == null)
+                            throw new IOException("The credentials file could not be found!");
+                        props.load(credentials);
+                    } catch (IOException e) {
+                        throw new RuntimeException("You do not have the correct Credentials to access the database!", e);
+                    }
+
+                    pool = new JDBCConnectionPool(props);
+                }
             }
-
-            String endpoint = props.getProperty("endpoint");
-            String username = props.getProperty("username");
-            String pass = props.getProperty("password");
-
-            connection = DriverManager
-                    .getConnection(endpoint,
-                            username, pass);
-        }
-        }catch (SQLException e) {
-            return null; // can't establish a connection
         }
 
-        return connection;
+        return pool;
     }
 
     /* Adheres to the Singleton Pattern */
@@ -0,0 +1,475 @@
+package com.johnsbank.java.utilities;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of connections to the database. Connections are borrowed with {@link #borrow()} and handed back
+ * by calling close() on the borrowed connection, which returns the physical connection to the pool instead
+ * of closing it
+ */
+public class JDBCConnectionPool {
+
+    private final String endpoint;                  // The url of the database
+    private final Properties connectionProps;       // The user, password and driver settings
+    private final int maxSize;                      // The most connections that may exist at once
+    private final long borrowTimeoutMillis;         // How long to wait for a free connection
+    private final long idleTimeoutMillis;           // How long a connection may sit unused before being closed
+    private final long maxLifetimeMillis;           // How long a connection may live before being replaced
+    private final int validationTimeoutSeconds;     // How long to wait on a connection to prove it is alive
+    private final int statementCacheSize;           // How many prepared statements each connection keeps
+
+    private final Semaphore permits;                                                  // Bounds the pool size
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>(); // Free connections
+    private final ScheduledExecutorService evictor;                                   // Closes stale idle connections
+    private volatile boolean shutdown = false;
+
+    // Metrics of the pool
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong statementEvictions = new AtomicLong();
+
+    /**
+     * Creates a pool from the given properties. Besides endpoint, username and password the following optional
+     * keys are understood: pool.maxSize, pool.borrowTimeoutMillis, pool.idleTimeoutMillis,
+     * pool.maxLifetimeMillis, pool.validationTimeoutSeconds, pool.statementCacheSize, pool.prepareThreshold
+     * and pool.reWriteBatchedInserts
+     * @param props - The properties holding the credentials and settings of the pool
+     */
+    public JDBCConnectionPool(Properties props) {
+        endpoint = props.getProperty("endpoint");
+        connectionProps = new Properties();
+        connectionProps.setProperty("user", props.getProperty("username"));
+        connectionProps.setProperty("password", props.getProperty("password"));
+        // Cached statements are reused, so let the driver switch them to server side statements right away
+        connectionProps.setProperty("prepareThreshold", props.getProperty("pool.prepareThreshold", "1"));
+        // Lets the driver send a batch of inserts as multi-row inserts
+        connectionProps.setProperty("reWriteBatchedInserts",
+                props.getProperty("pool.reWriteBatchedInserts", "true"));
+
+        maxSize = Integer.parseInt(props.getProperty("pool.maxSize", "10"));
+        borrowTimeoutMillis = Long.parseLong(props.getProperty("pool.borrowTimeoutMillis", "30000"));
+        idleTimeoutMillis = Long.parseLong(props.getProperty("pool.idleTimeoutMillis", "600000"));
+        maxLifetimeMillis = Long.parseLong(props.getProperty("pool.maxLifetimeMillis", "1800000"));
+        validationTimeoutSeconds = Integer.parseInt(props.getProperty("pool.validationTimeoutSeconds", "5"));
+        statementCacheSize = Integer.parseInt(props.getProperty("pool.statementCacheSize", "64"));
+
+        if(maxSize < 1)
+            throw new IllegalArgumentException("The pool must hold at least one connection!");
+
+        permits = new Semaphore(maxSize, true);
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jdbc-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, maxLifetimeMillis) / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the borrow timeout for one to be free.
+     * The connection must be closed once the caller is done with it to give it back
+     * @return - A valid connection to the database
+     * @throws SQLException - if no connection could be made or none became free in time
+     */
+    public Connection borrow() throws SQLException {
+
+        if(shutdown)
+            throw new SQLException("The connection pool has been shut down!");
+
+        long start = System.nanoTime();
+        try {
+            if(!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                // counted in the average like any other wait, it just ended without a connection
+                recordWait(System.nanoTime() - start);
+                timeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out waiting for a connection to the database!");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to the database!", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            // Reuse the most recently returned connection that is still alive
+            PooledConnection pooled;
+            while((pooled = idle.pollFirst()) != null) {
+                if(!isExpired(pooled, System.currentTimeMillis()) && pooled.isValid(validationTimeoutSeconds))
+                    break;
+                destroy(pooled);
+            }
+
+            if(pooled == null)
+                pooled = create();
+
+            borrowed.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gives a connection back to the pool, called when a borrowed connection is closed
+     * @param pooled - The connection being returned
+     * @param broken - true if the connection should not be reused
+     */
+    void giveBack(PooledConnection pooled, boolean broken) {
+        try {
+            if(broken || shutdown || isExpired(pooled, System.currentTimeMillis()) || !pooled.reset())
+                destroy(pooled);
+            else
+                idle.offerFirst(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes every idle connection and refuses any further borrowing
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while((pooled = idle.pollFirst()) != null)
+            destroy(pooled);
+    }
+
+    /**
+     * Closes idle connections that have either sat unused too long or outlived their maximum lifetime
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator(); // oldest returned connections first
+        while(it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if((isExpired(pooled, now) || now - pooled.lastReturned > idleTimeoutMillis) && idle.remove(pooled))
+                destroy(pooled);
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return now - pooled.createdAt > maxLifetimeMillis;
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(endpoint, connectionProps);
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.incrementAndGet();
+        if(pooled.statements != null)
+            pooled.statements.close();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            // the connection is being thrown away, nothing more to do
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        Metrics.raiseMax(maxWaitNanos, nanos);
+    }
+
+    public int getMaxSize() { return maxSize; }
+    public int getIdleCount() { return idle.size(); }
+    public int getActiveCount() { return maxSize - permits.availablePermits(); }
+    public int getWaitingCount() { return permits.getQueueLength(); }
+    public long getBorrowCount() { return borrowed.get(); }
+    public long getCreatedCount() { return created.get(); }
+    public long getDestroyedCount() { return destroyed.get(); }
+    public long getTimeoutCount() { return timeouts.get(); }
+    public long getMaxWaitNanos() { return maxWaitNanos.get(); }
+    public long getStatementCacheHits() { return statementHits.get(); }
+    public long getStatementCacheMisses() { return statementMisses.get(); }
+    public long getStatementCacheEvictions() { return statementEvictions.get(); }
+
+    /**
+     * Returns the average time callers waited for a connection, including the waits that timed out
+     * @return - the average wait in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long count = borrowed.get() + timeouts.get();
+        return count == 0 ? 0 : totalWaitNanos.get() / count;
+    }
+
+    @Override
+    public String toString() {
+        return "JDBCConnectionPool[active=" + getActiveCount() + ", idle=" + getIdleCount() +
+                ", waiting=" + getWaitingCount() + ", borrowed=" + getBorrowCount() +
+                ", created=" + getCreatedCount() + ", destroyed=" + getDestroyedCount() +
+                ", timeouts=" + getTimeoutCount() + ", avgWaitNanos=" + getAverageWaitNanos() +
+                ", maxWaitNanos=" + getMaxWaitNanos() + ", statementHits=" + getStatementCacheHits() +
+                ", statementMisses=" + getStatementCacheMisses() +
+                ", statementEvictions=" + getStatementCacheEvictions() + "]";
+    }
+
+    /**
+     * A physical connection owned by the pool along with its bookkeeping
+     */
+    class PooledConnection {
+
+        final Connection physical;
+        final StatementCache statements;
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastReturned = createdAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            statements = statementCacheSize > 0 ? new StatementCache(physical, statementCacheSize,
+                    statementHits, statementMisses, statementEvictions) : null;
+        }
+
+        boolean isValid(int timeoutSeconds) {
+            try {
+                return physical.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Puts the connection back into the state a new borrower expects
+         * @return - true if the connection can be reused
+         */
+        boolean reset() {
+            try {
+                if(physical.isClosed())
+                    return false;
+                if(!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                lastReturned = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Wraps the physical connection in a handle whose close() gives the connection back to the pool
+         * @return - The handle given to the borrower
+         */
+        Connection lease() {
+            Lease lease = new Lease(this);
+            lease.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, lease);
+            return lease.proxy;
+        }
+    }
+
+    /**
+     * The handle a borrower holds, forwards every call to the physical connection until it is closed
+     */
+    private class Lease implements InvocationHandler {
+
+        private PooledConnection pooled;
+        private Connection proxy;
+        private boolean broken = false;
+        // Statements handed out during this lease, released or closed when the lease ends
+        private final ArrayList<StatementHandle> handles = new ArrayList<>();
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if(pooled != null) {
+                        for(StatementHandle handle : handles)
+                            handle.finish();
+                        handles.clear();
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        giveBack(returning, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + (pooled == null ? "[closed]" : pooled.physical.toString());
+            }
+
+            if(pooled == null)
+                throw new SQLException("The connection has already been returned to the pool!");
+
+            try {
+                if(method.getName().equals("prepareStatement"))
+                    return prepare(method, args);
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw fail(e.getCause());
+            }
+        }
+
+        /**
+         * Notes a failure raised through this lease or its statements. A connection level failure means
+         * the socket can't be trusted anymore, so the connection is destroyed instead of reused
+         * @param cause - The failure
+         * @return - The same failure, to be thrown
+         */
+        Throwable fail(Throwable cause) {
+            if(cause instanceof SQLException && isFatal((SQLException) cause))
+                broken = true;
+            return cause;
+        }
+
+        /**
+         * Hands out a statement from the connection's cache when possible, otherwise prepares a new one that is
+         * closed at the latest when the lease ends
+         */
+        private PreparedStatement prepare(Method method, Object[] args) throws Throwable {
+
+            PreparedStatement statement = null;
+            String cachedSql = null;
+            if(args.length == 1 && pooled.statements != null) {
+                statement = pooled.statements.acquire((String) args[0]);
+                if(statement != null)
+                    cachedSql = (String) args[0];
+            }
+            if(statement == null)
+                statement = (PreparedStatement) method.invoke(pooled.physical, args);
+
+            StatementHandle handle = new StatementHandle(pooled, statement, cachedSql, this);
+            handles.add(handle);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, handle);
+        }
+
+        private boolean isFatal(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+
+    /**
+     * The handle a borrower holds on a statement. Closing it gives a cached statement back to the cache
+     * and really closes a statement that was not cached. Result sets are handed out wrapped so they lead
+     * back to the handle rather than the cached statement underneath
+     */
+    private static class StatementHandle implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private final PreparedStatement statement;
+        private final String cachedSql;          // null if the statement is not owned by the cache
+        private final Lease lease;               // The lease the statement was prepared on
+        private boolean closed = false;
+
+        StatementHandle(PooledConnection pooled, PreparedStatement statement, String cachedSql, Lease lease) {
+            this.pooled = pooled;
+            this.statement = statement;
+            this.cachedSql = cachedSql;
+            this.lease = lease;
+        }
+
+        void finish() {
+            if(closed)
+                return;
+            closed = true;
+            if(cachedSql != null) {
+                pooled.statements.release(cachedSql);
+            } else {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    // the statement is being thrown away, nothing more to do
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    finish();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return lease.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return statement.toString();
+            }
+
+            if(closed)
+                throw new SQLException("The statement has already been closed!");
+
+            Object retVal;
+            try {
+                retVal = method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw lease.fail(e.getCause());
+            }
+
+            if(retVal instanceof ResultSet)
+                return wrap((ResultSet) retVal, (Statement) proxy);
+            return retVal;
+        }
+
+        /**
+         * Wraps a result set so getStatement() returns the handle, and so a connection level failure
+         * while reading rows is noticed by the lease
+         */
+        private ResultSet wrap(ResultSet rs, Statement handle) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getStatement":
+                                return handle;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                        }
+                        try {
+                            return method.invoke(rs, args);
+                        } catch (InvocationTargetException e) {
+                            throw lease.fail(e.getCause());
+                        }
+                    });
+        }
+    }
+}
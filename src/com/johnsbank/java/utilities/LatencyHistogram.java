@@ -0,0 +1,78 @@
+package com.johnsbank.java.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts recorded durations in fixed buckets so percentiles such as the p99 can be read back without keeping
+ * every sample. Each power of two is split into eight buckets, so a percentile is reported to within an eighth
+ * of its true value. Recording is a single atomic increment and is safe from any number of threads
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;                          // 2^3 buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Records one duration
+     * @param nanos - The duration, negative durations are counted as 0
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(Math.max(nanos, 0)));
+        total.incrementAndGet();
+    }
+
+    /**
+     * Returns the duration that the given percent of recorded durations did not exceed
+     * @param percentile - The percent, such as 99 for the p99
+     * @return - The upper end of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if(percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("A percentile must be between 0 and 100: " + percentile);
+
+        long count = total.get();
+        if(count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; ++i) {
+            seen += counts.get(i);
+            if(seen >= rank)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(BUCKETS - 1); // samples recorded while reading, the last bucket bounds them all
+    }
+
+    public long getCount() { return total.get(); }
+
+    /**
+     * Returns the bucket of a duration. Durations below 8 have a bucket each, above that the bucket is the
+     * power of two the duration falls in along with the next three bits
+     */
+    private static int bucketOf(long nanos) {
+        if(nanos < SUB_BUCKETS)
+            return (int) nanos;
+        int octave = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (octave - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (octave - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest duration that lands in the bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if(bucket < SUB_BUCKETS)
+            return bucket;
+        int octave = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long width = 1L << (octave - SUB_BITS);
+        long lower = (long) (SUB_BUCKETS + sub) << (octave - SUB_BITS);
+        return lower + (width - 1);
+    }
+}
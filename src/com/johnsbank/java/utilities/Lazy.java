@@ -0,0 +1,61 @@
+package com.johnsbank.java.utilities;
+
+import java.util.function.Supplier;
+
+/**
+ * A value that is only loaded the first time it is asked for, and remembered after that
+ * @param <T> - The type of value being loaded
+ */
+public class Lazy<T> implements Supplier<T> {
+
+    private Supplier<? extends T> loader;   // Loads the value, let go of once the value is loaded
+    private volatile boolean loaded;
+    private T value;
+
+    /**
+     * Creates a value that will be loaded by the given loader on first use
+     * @param loader - The loader of the value
+     */
+    public Lazy(Supplier<? extends T> loader) {
+        this.loader = loader;
+        loaded = false;
+    }
+
+    /**
+     * Creates a value that is already loaded
+     * @param value - The value
+     * @return - The already loaded value
+     */
+    public static <T> Lazy<T> of(T value) {
+        Lazy<T> retVal = new Lazy<>(null);
+        retVal.value = value;
+        retVal.loaded = true;
+        return retVal;
+    }
+
+    /**
+     * Returns the value, loading it if this is the first time it is asked for
+     * @return - The value
+     */
+    @Override
+    public T get() {
+        if(!loaded) {
+            synchronized (this) {
+                if(!loaded) {
+                    value = loader.get();
+                    loader = null;
+                    loaded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Returns whether the value has been loaded yet
+     * @return - true if the value is loaded
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
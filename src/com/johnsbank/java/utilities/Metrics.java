@@ -0,0 +1,23 @@
+package com.johnsbank.java.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Helpers shared by the classes that keep counters of how they perform
+ */
+public final class Metrics {
+
+    private Metrics() {/* Prevents anyone from instantiating */}
+
+    /**
+     * Raises a running maximum to the given value if the value is larger, without locking
+     * @param max - The running maximum
+     * @param value - The value just measured
+     */
+    public static void raiseMax(AtomicLong max, long value) {
+        long current;
+        while(value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised the maximum first, try again against the new value
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.johnsbank.java.utilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Brings the database schema up to date by applying the numbered SQL scripts under migrations on the classpath.
+ * The scripts are listed in order in migrations/index and named V{version}__{description}.sql. Each applied
+ * script is recorded in the Schema_Migrations table along with a checksum, so a script is only ever applied once
+ * and a script changed after being applied is reported instead of silently skipped. An advisory lock keeps two
+ * instances of the app starting at once from applying the same script twice
+ */
+public class MigrationRunner {
+
+    private static final MigrationRunner instance = new MigrationRunner();
+
+    private static final String INDEX = "migrations/index";
+    private static final long LOCK_KEY = 0x4A6F686E7342616EL; // Any constant, shared by every instance of the app
+
+    private MigrationRunner() {/* Prevents anyone from instantiating */}
+
+    /* Adheres to the Singleton Pattern */
+    public static MigrationRunner getInstance() {return instance;}
+
+    /**
+     * Applies every migration the database hasn't had yet, in order, each in its own transaction
+     * @return - The count of migrations applied
+     * @throws IllegalStateException - if a migration was changed after it was applied
+     */
+    public int migrate() {
+
+        try (Connection connection = JDBCConnection.getInstance().getConnection()) {
+            lock(connection, true);
+            try {
+                return applyPending(connection);
+            } finally {
+                lock(connection, false);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not migrate the Database!", e);
+        }
+    }
+
+    /**
+     * Applies the migrations missing from the history table while holding the lock
+     */
+    private int applyPending(Connection connection) throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS \"Schema_Migrations\" (" +
+                    "\"Version\" INT NOT NULL PRIMARY KEY, " +
+                    "\"Name\" VARCHAR(100) NOT NULL, " +
+                    "\"Checksum\" CHAR(64) NOT NULL, " +
+                    "\"Applied_At\" TIMESTAMPTZ NOT NULL DEFAULT now())");
+        }
+
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT \"Version\", \"Checksum\" FROM \"Schema_Migrations\"")) {
+            while(rs.next())
+                applied.put(rs.getInt("Version"), rs.getString("Checksum"));
+        }
+
+        int count = 0;
+        int lastVersion = 0;
+        for(String name : readLines(INDEX)) {
+
+            int version = versionOf(name);
+            if(version <= lastVersion)
+                throw new IllegalStateException("Migration " + name + " is out of order!");
+            lastVersion = version;
+
+            String script = readScript("migrations/" + name);
+            String checksum = HashGenerator.getInstance().getMessageDigest(script);
+            String appliedChecksum = applied.get(version);
+            if(appliedChecksum != null) {
+                if(!appliedChecksum.equals(checksum))
+                    throw new IllegalStateException("Migration " + name + " was changed after it was applied!");
+                continue;
+            }
+
+            apply(connection, version, name, script, checksum);
+            ++count;
+        }
+
+        return count;
+    }
+
+    /**
+     * Runs a single migration and records it, both in one transaction
+     */
+    private void apply(Connection connection, int version, String name, String script, String checksum)
+            throws SQLException {
+
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement();
+             PreparedStatement record = connection.prepareStatement(
+                     "INSERT INTO \"Schema_Migrations\" (\"Version\", \"Name\", \"Checksum\") VALUES (?, ?, ?)")) {
+            statement.execute(script);
+            record.setInt(1, version);
+            record.setString(2, name);
+            record.setString(3, checksum);
+            record.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + name + " failed!", e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Takes or releases the advisory lock serializing migrations across every instance of the app
+     */
+    private void lock(Connection connection, boolean take) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                take ? "SELECT pg_advisory_lock(?)" : "SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, LOCK_KEY);
+            ps.executeQuery().close();
+        }
+    }
+
+    /**
+     * Returns the version from a name of the form V{version}__{description}.sql
+     */
+    private static int versionOf(String name) {
+        int end = name.indexOf("__");
+        if(!name.startsWith("V") || end < 2)
+            throw new IllegalStateException("Migration " + name + " is not named V{version}__{description}.sql!");
+        try {
+            return Integer.parseInt(name.substring(1, end));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Migration " + name + " is not named V{version}__{description}.sql!", e);
+        }
+    }
+
+    /**
+     * Reads a script from the classpath with its line endings normalized, so the checksum doesn't depend
+     * on the platform the script was checked out on
+     */
+    private static String readScript(String resource) {
+        StringBuilder script = new StringBuilder();
+        for(String line : readLines(resource))
+            script.append(line).append('\n');
+        return script.toString();
+    }
+
+    /**
+     * Reads every line of a classpath resource, skipping blank lines
+     */
+    private static MyArrayList<String> readLines(String resource) {
+
+        MyArrayList<String> lines = new MyArrayList<>();
+        try (InputStream in = MigrationRunner.class.getClassLoader().getResourceAsStream(resource)) {
+            if(in == null)
+                throw new IllegalStateException("The migration resource " + resource + " could not be found!");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while((line = reader.readLine()) != null)
+                if(!line.trim().isEmpty())
+                    lines.add(line);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the migration resource " + resource + "!", e);
+        }
+
+        return lines;
+    }
+}
@@ -1,5 +1,7 @@
 package com.johnsbank.java.utilities;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 
 // An ArrayList is a list that is simply 'backed' by an array
@@ -7,9 +9,26 @@ import java.util.Iterator;
 // but new functionality is added to make it more dynamic
 public class MyArrayList<T> implements Iterable<T> {
 
+    private static final int DEFAULT_SIZE = 10;
+
     private int count = 0;
-    private int size = 10;
-    private Object[] array = new Object[size];
+    private int size;
+    private Object[] array;
+
+    public MyArrayList() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Makes an empty list with room for the given count of elements before it has to grow
+     * @param initialSize - How many elements the list can hold at first
+     */
+    public MyArrayList(int initialSize) {
+        if(initialSize < 0)
+            throw new IllegalArgumentException("The size can't be negative: " + initialSize);
+        size = initialSize;
+        array = new Object[size];
+    }
 
     /**
      * I implemented this before I knew about the Java comparators in the given libraries, acts as a comparator
@@ -21,20 +40,56 @@ public class MyArrayList<T> implements Iterable<T> {
     }
 
     /**
-     * Using the comparator I implemented, inserts an element in a sorted manner
+     * Using the comparator I implemented, inserts an element in a sorted manner. The element goes before the
+     * first element the comparator says it belongs in front of, found with a binary search, so the list
+     * must already be ordered by the same comparator
      * @param data - The data being inserted
      * @param comparator - the comparator used to keep it sorted
      */
     public void insertOrdered(T data, MyArrayList.Compare<T> comparator) {
 
-        for(int i = 0; i < count; ++i)
-        {
-            if(comparator.operation(data, (T)array[i])) {
-                insert(i, data);
-                return;
-            }
+        int low = 0;
+        int high = count;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(comparator.operation(data, get(mid)))
+                high = mid;
+            else
+                low = mid + 1;
         }
-        add(data);
+        insert(low, data);
+    }
+
+    /**
+     * Inserts an element in a sorted manner, after any elements equal to it, found with a binary search.
+     * The list must already be sorted by the same comparator
+     * @param data - The data being inserted
+     * @param comparator - the comparator used to keep it sorted
+     * @return - the index it was inserted at
+     */
+    public int insertSorted(T data, Comparator<? super T> comparator) {
+
+        int low = 0;
+        int high = count;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(comparator.compare(data, get(mid)) < 0)
+                high = mid;
+            else
+                low = mid + 1;
+        }
+        insert(low, data);
+        return low;
+    }
+
+    /**
+     * Sorts the elements, elements that are equal keep the order they were in
+     * @param comparator - the comparator used to sort
+     */
+    public void sort(Comparator<? super T> comparator) {
+        @SuppressWarnings("unchecked") // the array only ever holds elements of type T
+        Comparator<Object> byElement = (Comparator<Object>) comparator;
+        Arrays.sort(array, 0, count, byElement);
     }
 
     /**
@@ -50,11 +105,46 @@ public class MyArrayList<T> implements Iterable<T> {
      * Grows the internal array
      */
     private void grow(){
-        Object[] array = new Object[size*2];
+        ensureCapacity(count + 1);
+    }
+
+    /**
+     * Makes sure the list can hold the given count of elements without growing again
+     * @param minimum - the count of elements the list needs room for
+     */
+    public void ensureCapacity(int minimum) {
+        if(minimum <= size)
+            return;
+
+        // at least double so a run of adds still takes constant time each
+        int newSize = Math.max(minimum, Math.max(size * 2, DEFAULT_SIZE));
+        if(newSize < 0) // doubling overflowed
+            newSize = Integer.MAX_VALUE - 8;
+        resize(newSize);
+    }
+
+    /**
+     * Shrinks the internal array to hold only the current elements
+     */
+    public void trimToSize() {
+        if(count < size)
+            resize(count);
+    }
+
+    /**
+     * Returns how many elements the list can hold before it has to grow
+     * @return - the length of the internal array
+     */
+    public int capacity() {
+        return size;
+    }
 
-        System.arraycopy(this.array, 0, array, 0, size);
+    private void resize(int newSize) {
+        Object[] array = new Object[newSize];
 
-        size *= 2;
+        System.arraycopy(this.array, 0, array, 0, count);
+
+        size = newSize;
         this.array = array;
     }
 
@@ -68,6 +158,7 @@ public class MyArrayList<T> implements Iterable<T> {
 
         --count;
         System.arraycopy(array, index + 1, array, index, count - index);
+        array[count] = null; // let go of the moved element
 
     }
 
@@ -86,6 +177,32 @@ public class MyArrayList<T> implements Iterable<T> {
         return count - 1;
     }
 
+    /**
+     * Adds every element of another list to the end of this one
+     * @param other - the list holding the elements to add
+     */
+    public void addAll(MyArrayList<? extends T> other) {
+        append(other.array, 0, other.count);
+    }
+
+    /**
+     * Adds a run of elements from an array to the end of the list
+     * @param elements - the array holding the elements to add
+     * @param offset - the first element to add
+     * @param length - how many elements to add
+     */
+    public void addAll(T[] elements, int offset, int length) {
+        if(offset < 0 || length < 0 || offset > elements.length - length)
+            throw new IndexOutOfBoundsException("Can't add " + length + " elements from " + offset);
+        append(elements, offset, length);
+    }
+
+    private void append(Object[] elements, int offset, int length) {
+        ensureCapacity(count + length);
+        System.arraycopy(elements, offset, array, count, length); // safe even when adding a list to itself
+        count += length;
+    }
+
     /**
      * Returns the count of elements
      * @return - how many elements in the container
@@ -24,7 +24,7 @@ public class MyLinkedList<T> implements Iterable<T> {
     }
 
     Node<T> head = null;
-    Node<T> tail = null; // not implemented
+    Node<T> tail = null;
     int count = 0;
 
     /**
@@ -59,12 +59,15 @@ public class MyLinkedList<T> implements Iterable<T> {
         if(it == null)
         {
             head = newNode;
+            tail = newNode;
+            ++count;
             return;
         }
 
         if(comparator.operation(newNode.data, head.data)){
             head = newNode;
             newNode.next = it;
+            ++count;
             return;
         }
 
@@ -77,7 +80,9 @@ public class MyLinkedList<T> implements Iterable<T> {
 
         prevIt.next = newNode;
         newNode.next = it;
-
+        if(it == null)
+            tail = newNode;
+        ++count;
     }
 
     /**
@@ -97,6 +102,10 @@ public class MyLinkedList<T> implements Iterable<T> {
         if(index == 0){
             head = newNode;
             newNode.next = it;
+            if(it == null)
+                tail = newNode;
+            ++count;
+            return true;
         }
 
         int at = 0;
@@ -108,6 +117,8 @@ public class MyLinkedList<T> implements Iterable<T> {
 
         prevIt.next = newNode;
         newNode.next = it;
+        if(it == null)
+            tail = newNode;
         ++count;
         return true;
     }
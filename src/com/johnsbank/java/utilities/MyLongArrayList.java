@@ -0,0 +1,192 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A MyArrayList that holds longs directly instead of boxing each one, for cents, timestamps and other numbers
+ * that are summed or sorted in bulk
+ */
+public class MyLongArrayList {
+
+    private static final int DEFAULT_SIZE = 10;
+
+    private int count = 0;
+    private long[] array;
+
+    public MyLongArrayList() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Makes an empty list with room for the given count of elements before it has to grow
+     * @param initialSize - How many elements the list can hold at first
+     */
+    public MyLongArrayList(int initialSize) {
+        if(initialSize < 0)
+            throw new IllegalArgumentException("The size can't be negative: " + initialSize);
+        array = new long[initialSize];
+    }
+
+    /**
+     * Adds the given element into the array
+     * @param element - the value you want to add into the array
+     * @return - the index that it was added at
+     */
+    public int add(long element) {
+        if(count == array.length)
+            ensureCapacity(count + 1);
+        array[count++] = element;
+        return count - 1;
+    }
+
+    /**
+     * Adds every element of another list to the end of this one
+     * @param other - the list holding the elements to add
+     */
+    public void addAll(MyLongArrayList other) {
+        int length = other.count;
+        ensureCapacity(count + length);
+        System.arraycopy(other.array, 0, array, count, length);
+        count += length;
+    }
+
+    /**
+     * Gets the element at an index
+     * @param index - the index to get the element
+     * @return - The element at the given index
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return array[index];
+    }
+
+    /**
+     * replaces an element in the array
+     * @param index - the index of the element to replace
+     * @param element - the element replacing it
+     */
+    public void set(int index, long element) {
+        checkIndex(index);
+        array[index] = element;
+    }
+
+    /**
+     * Removes the element at the given index
+     * @param index - The index to remove
+     * @return - The element that was removed
+     */
+    public long removeAt(int index) {
+        checkIndex(index);
+        long retVal = array[index];
+        --count;
+        System.arraycopy(array, index + 1, array, index, count - index);
+        return retVal;
+    }
+
+    /**
+     * Returns the index of the first element equal to the given one
+     * @param element - the element to look for
+     * @return - the index of the element, or -1 if it isn't in the list
+     */
+    public int indexOf(long element) {
+        for(int i = 0; i < count; ++i)
+            if(array[i] == element)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Adds up every element
+     * @return - the total of the elements
+     * @throws ArithmeticException - if the total can't be held in a long
+     */
+    public long sum() {
+        long total = 0;
+        for(int i = 0; i < count; ++i)
+            total = Math.addExact(total, array[i]);
+        return total;
+    }
+
+    /**
+     * Sorts the elements from smallest to largest
+     */
+    public void sort() {
+        Arrays.sort(array, 0, count);
+    }
+
+    /**
+     * Makes sure the list can hold the given count of elements without growing again
+     * @param minimum - the count of elements the list needs room for
+     */
+    public void ensureCapacity(int minimum) {
+        if(minimum <= array.length)
+            return;
+
+        // at least double so a run of adds still takes constant time each
+        int newSize = Math.max(minimum, Math.max(array.length * 2, DEFAULT_SIZE));
+        if(newSize < 0) // doubling overflowed
+            newSize = Integer.MAX_VALUE - 8;
+        array = Arrays.copyOf(array, newSize);
+    }
+
+    /**
+     * Shrinks the internal array to hold only the current elements
+     */
+    public void trimToSize() {
+        if(count < array.length)
+            array = Arrays.copyOf(array, count);
+    }
+
+    /**
+     * Returns how many elements the list can hold before it has to grow
+     * @return - the length of the internal array
+     */
+    public int capacity() {
+        return array.length;
+    }
+
+    /**
+     * Returns the elements in a new array
+     * @return - an array holding just the elements
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(array, count);
+    }
+
+    /**
+     * Removes every element, keeping the room they took
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    private void checkIndex(int index) {
+        if(index >= count || index < 0)
+            throw new IndexOutOfBoundsException("No element at index " + index + ", the size is " + count);
+    }
+
+    /**
+     * returns all the elements inside a String
+     * @return - the string containing all the elements
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("[");
+
+        for(int i = 0; i < count; ++i) {
+            out.append(array[i]);
+            if(i < count - 1) out.append(", ");
+        }
+
+        out.append("]");
+        return out.toString();
+    }
+}
@@ -0,0 +1,241 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from long to long kept in two parallel arrays, so adding an entry never allocates an object
+ * the way a HashMap of boxed Longs does. Collisions are resolved by open addressing: an entry that lands on
+ * a taken slot goes in the next free one. Key 0 marks a free slot, so an entry with key 0 is held on the side
+ */
+public class MyLongLongHashMap {
+
+    private static final int DEFAULT_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.5f;  // kept low so probe runs stay short
+
+    private long[] keys;
+    private long[] values;
+    private int mask;                   // The slot count minus one, the slot count is a power of two
+    private int count = 0;              // Entries in the arrays, not counting key 0
+    private int resizeAt;
+
+    private boolean hasZeroKey = false;
+    private long zeroValue;
+
+    /**
+     * Visits each entry of the map, used with forEach
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, long value);
+    }
+
+    public MyLongLongHashMap() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Makes an empty map with room for the given count of entries before it has to grow
+     * @param expected - How many entries the map should hold without growing
+     */
+    public MyLongLongHashMap(int expected) {
+        if(expected < 0)
+            throw new IllegalArgumentException("The size can't be negative: " + expected);
+        allocate(slotsFor(expected));
+    }
+
+    /**
+     * Returns the value of a key
+     * @param key - the key to look up
+     * @param defaultValue - the value to return if the key isn't in the map
+     * @return - the value of the key, or the default value if it has none
+     */
+    public long get(long key, long defaultValue) {
+        if(key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+
+        for(int slot = slotOf(key); keys[slot] != 0; slot = (slot + 1) & mask)
+            if(keys[slot] == key)
+                return values[slot];
+        return defaultValue;
+    }
+
+    /**
+     * Returns whether the map has a value for the key
+     * @param key - the key in question
+     * @return - true if the key is in the map
+     */
+    public boolean containsKey(long key) {
+        if(key == 0)
+            return hasZeroKey;
+        return find(key) >= 0;
+    }
+
+    /**
+     * Sets the value of a key
+     * @param key - the key to set
+     * @param value - the value of the key
+     * @return - the value the key had, or 0 if it had none
+     */
+    public long put(long key, long value) {
+        if(key == 0) {
+            long retVal = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = true;
+            zeroValue = value;
+            return retVal;
+        }
+
+        int slot = slotOf(key);
+        for(; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if(keys[slot] == key) {
+                long retVal = values[slot];
+                values[slot] = value;
+                return retVal;
+            }
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if(++count >= resizeAt)
+            allocate(keys.length * 2);
+        return 0;
+    }
+
+    /**
+     * Adds to the value of a key, a key that isn't in the map starts at 0. Used to total amounts by a key
+     * @param key - the key to add to
+     * @param delta - the amount to add
+     * @return - the new value of the key
+     * @throws ArithmeticException - if the total can't be held in a long
+     */
+    public long addTo(long key, long delta) {
+        if(key == 0) {
+            zeroValue = Math.addExact(hasZeroKey ? zeroValue : 0, delta);
+            hasZeroKey = true;
+            return zeroValue;
+        }
+
+        int slot = find(key);
+        if(slot >= 0)
+            return values[slot] = Math.addExact(values[slot], delta);
+        put(key, delta);
+        return delta;
+    }
+
+    /**
+     * Removes a key from the map
+     * @param key - the key to remove
+     * @param defaultValue - the value to return if the key isn't in the map
+     * @return - the value the key had, or the default value if it had none
+     */
+    public long remove(long key, long defaultValue) {
+        if(key == 0) {
+            if(!hasZeroKey)
+                return defaultValue;
+            hasZeroKey = false;
+            return zeroValue;
+        }
+
+        int slot = find(key);
+        if(slot < 0)
+            return defaultValue;
+        long retVal = values[slot];
+        --count;
+
+        // pull back any later entry of the run that would no longer be found past the new gap
+        int gap = slot;
+        for(int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slotOf(keys[next]);
+            if(((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        return retVal;
+    }
+
+    /**
+     * Visits every entry in no particular order
+     * @param visitor - called with each key and its value
+     */
+    public void forEach(Visitor visitor) {
+        if(hasZeroKey)
+            visitor.visit(0, zeroValue);
+        for(int slot = 0; slot < keys.length; ++slot)
+            if(keys[slot] != 0)
+                visitor.visit(keys[slot], values[slot]);
+    }
+
+    /**
+     * Removes every entry, keeping the room they took
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        count = 0;
+        hasZeroKey = false;
+    }
+
+    public int size() {
+        return count + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the slot holding a key
+     * @return - the slot, or -1 if the key isn't in the map
+     */
+    private int find(long key) {
+        for(int slot = slotOf(key); keys[slot] != 0; slot = (slot + 1) & mask)
+            if(keys[slot] == key)
+                return slot;
+        return -1;
+    }
+
+    /**
+     * Returns the slot a key is first tried in. Keys such as ids and cents are rarely random in their low bits,
+     * so the bits are mixed before the slot is taken from them
+     */
+    private int slotOf(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the power of two slot count that holds the given count of entries under the load factor
+     */
+    private static int slotsFor(int expected) {
+        long needed = Math.max((long) Math.ceil(expected / LOAD_FACTOR) + 1, DEFAULT_SIZE);
+        if(needed > 1 << 30)
+            throw new IllegalArgumentException("The map can't hold " + expected + " entries");
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * Moves every entry into new arrays of the given slot count
+     */
+    private void allocate(int slots) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+
+        keys = new long[slots];
+        values = new long[slots];
+        mask = slots - 1;
+        resizeAt = (int) (slots * LOAD_FACTOR);
+
+        if(oldKeys == null)
+            return;
+        for(int i = 0; i < oldKeys.length; ++i) {
+            if(oldKeys[i] == 0)
+                continue;
+            int slot = slotOf(oldKeys[i]);
+            while(keys[slot] != 0)
+                slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.johnsbank.java.utilities;
+// A Skip List is a linked list with express lanes. Every element is in the bottom list, and each list above
+// holds about half the elements of the one below it, so a search skips most of the list by starting at the top
+// and dropping down a level whenever the next element would go too far. That makes finding where an element
+// belongs take O(log n) steps, where an ordered linked list has to walk every element before it.
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * A custom ordered collection sorted by a key taken from each element, such as the time of a transaction.
+ * Elements with equal keys stay in the order they were added. It can be walked forwards or backwards,
+ * in whole or between two keys
+ * @param <K> The type of the key the elements are sorted by
+ * @param <T> The type the skip list holds
+ */
+public class MySkipList<K, T> implements Iterable<T> {
+
+    private static final int MAX_LEVEL = 32; // enough for any count of elements an array could hold
+
+    private final Function<? super T, ? extends K> keyOf;   // Takes the key from an element
+    private final Comparator<? super K> order;              // Sorts the keys
+
+    private final Node<K, T> head = new Node<>(null, null, MAX_LEVEL); // Holds no element, starts every level
+    private Node<K, T> tail = null;
+    private int level = 1;                                  // How many levels are in use
+    private int count = 0;
+
+    // Reused by every add to hold the nodes the new element is linked in after
+    @SuppressWarnings("unchecked")
+    private final Node<K, T>[] before = (Node<K, T>[]) new Node<?, ?>[MAX_LEVEL];
+
+    /**
+     * An element along with the next element on each of its levels and the one before it on the bottom level
+     */
+    private static class Node<K, T> {
+        final T data;
+        final K key;
+        final Node<K, T>[] next;
+        Node<K, T> prev;
+
+        @SuppressWarnings("unchecked")
+        Node(T data, K key, int levels) {
+            this.data = data;
+            this.key = key;
+            this.next = (Node<K, T>[]) new Node<?, ?>[levels];
+        }
+    }
+
+    /**
+     * Makes an empty skip list
+     * @param keyOf - takes the key from an element
+     * @param order - sorts the keys
+     */
+    public MySkipList(Function<? super T, ? extends K> keyOf, Comparator<? super K> order) {
+        this.keyOf = keyOf;
+        this.order = order;
+    }
+
+    /**
+     * Adds an element in order, after any elements with an equal key
+     * @param data - the element to add
+     * @return - the count of elements in the list
+     */
+    public int add(T data) {
+        K key = keyOf.apply(data);
+
+        // the last node on each level that comes before the new element
+        Node<K, T>[] before = this.before;
+        Node<K, T> it = head;
+        for(int i = level - 1; i >= 0; --i) {
+            while(it.next[i] != null && order.compare(it.next[i].key, key) <= 0)
+                it = it.next[i];
+            before[i] = it;
+        }
+
+        int levels = randomLevel();
+        for(; level < levels; ++level)
+            before[level] = head;
+
+        Node<K, T> newNode = new Node<>(data, key, levels);
+        for(int i = 0; i < levels; ++i) {
+            newNode.next[i] = before[i].next[i];
+            before[i].next[i] = newNode;
+        }
+
+        newNode.prev = before[0] == head ? null : before[0];
+        if(newNode.next[0] == null)
+            tail = newNode;
+        else
+            newNode.next[0].prev = newNode;
+
+        return ++count;
+    }
+
+    /**
+     * Picks how many levels a new element is on, each level half as likely as the one below
+     */
+    private static int randomLevel() {
+        // one more than the count of trailing ones in a random number, capped at the top level
+        return Math.min(Integer.numberOfTrailingZeros(~ThreadLocalRandom.current().nextInt()) + 1, MAX_LEVEL);
+    }
+
+    /**
+     * Returns the first node whose key is not before the given key
+     * @param key - the key to look for, null for the first node
+     */
+    private Node<K, T> firstAtOrAfter(K key) {
+        if(key == null)
+            return head.next[0];
+
+        Node<K, T> it = head;
+        for(int i = level - 1; i >= 0; --i)
+            while(it.next[i] != null && order.compare(it.next[i].key, key) < 0)
+                it = it.next[i];
+        return it.next[0];
+    }
+
+    /**
+     * Returns the last node whose key is before the given key
+     * @param key - the key to look for, null for the last node
+     */
+    private Node<K, T> lastBefore(K key) {
+        if(key == null)
+            return tail;
+
+        Node<K, T> it = head;
+        for(int i = level - 1; i >= 0; --i)
+            while(it.next[i] != null && order.compare(it.next[i].key, key) < 0)
+                it = it.next[i];
+        return it == head ? null : it;
+    }
+
+    /**
+     * Returns the elements with keys from the first key up to but not including the second, in order
+     * @param from - the smallest key to include, null to start at the first element
+     * @param to - the key to stop before, null to go to the last element
+     * @return - the elements in the range, read from the list as they are iterated over
+     */
+    public Iterable<T> range(K from, K to) {
+        return () -> new MyIterator(firstAtOrAfter(from), to, true);
+    }
+
+    /**
+     * Returns the elements with keys from the first key up to but not including the second, last element first
+     * @param from - the smallest key to include, null to go to the first element
+     * @param to - the key to stop before, null to start at the last element
+     * @return - the elements in the range, read from the list as they are iterated over
+     */
+    public Iterable<T> descendingRange(K from, K to) {
+        return () -> new MyIterator(lastBefore(to), from, false);
+    }
+
+    /**
+     * Returns every element, last element first
+     * @return - the elements from last to first
+     */
+    public Iterable<T> descending() {
+        return descendingRange(null, null);
+    }
+
+    /**
+     * returns the first element
+     * @return - the element with the smallest key, or null if the list is empty
+     */
+    public T first() {
+        return head.next[0] == null ? null : head.next[0].data;
+    }
+
+    /**
+     * returns the last element
+     * @return - the element with the largest key, or null if the list is empty
+     */
+    public T last() {
+        return tail == null ? null : tail.data;
+    }
+
+    /**
+     * Returns the count of elements
+     * @return - how many elements are in the list
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * true if the list is empty
+     * @return - True if there are no elements
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns all the elements in the list as a String
+     * @return the elements in string form
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("(");
+
+        for(Node<K, T> it = head.next[0]; it != null; it = it.next[0]) {
+            out.append(it.data);
+            if(it != tail)
+                out.append(", ");
+        }
+
+        out.append(")");
+        return out.toString();
+    }
+
+    /**
+     * returns an iterator over every element in order
+     * @return an iterator for the MySkipList class
+     */
+    public Iterator<T> iterator() {
+        return new MyIterator(head.next[0], null, true);
+    }
+
+    /**
+     * Custom iterator class that walks the bottom level of the list in either direction until it passes a key
+     */
+    class MyIterator implements Iterator<T> {
+
+        private Node<K, T> nextNode;
+        private final K bound;          // the key to stop at, null to run off the end
+        private final boolean forward;
+
+        MyIterator(Node<K, T> start, K bound, boolean forward) {
+            this.bound = bound;
+            this.forward = forward;
+            this.nextNode = inRange(start) ? start : null;
+        }
+
+        private boolean inRange(Node<K, T> node) {
+            if(node == null || bound == null)
+                return node != null;
+            // forwards the bound is excluded, backwards it is the smallest key included
+            int compared = order.compare(node.key, bound);
+            return forward ? compared < 0 : compared >= 0;
+        }
+
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        public T next() {
+            if(nextNode == null)
+                throw new NoSuchElementException();
+            T retVal = nextNode.data;
+            Node<K, T> following = forward ? nextNode.next[0] : nextNode.prev;
+            nextNode = inRange(following) ? following : null;
+            return retVal;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from String to int kept in parallel arrays, so adding an entry never allocates an object the way
+ * a HashMap of boxed Integers does. Used to give each account id or username a small index. Collisions are
+ * resolved by open addressing: an entry that lands on a taken slot goes in the next free one. The hash of each
+ * key is kept beside it so a probe only compares Strings whose hashes already match
+ */
+public class MyStringIntHashMap {
+
+    private static final int DEFAULT_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.5f;  // kept low so probe runs stay short
+
+    private String[] keys;              // null marks a free slot
+    private int[] hashes;
+    private int[] values;
+    private int mask;                   // The slot count minus one, the slot count is a power of two
+    private int count = 0;
+    private int resizeAt;
+
+    /**
+     * Visits each entry of the map, used with forEach
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(String key, int value);
+    }
+
+    public MyStringIntHashMap() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Makes an empty map with room for the given count of entries before it has to grow
+     * @param expected - How many entries the map should hold without growing
+     */
+    public MyStringIntHashMap(int expected) {
+        if(expected < 0)
+            throw new IllegalArgumentException("The size can't be negative: " + expected);
+        long needed = Math.max((long) Math.ceil(expected / LOAD_FACTOR) + 1, DEFAULT_SIZE);
+        if(needed > 1 << 30)
+            throw new IllegalArgumentException("The map can't hold " + expected + " entries");
+        allocate(Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Returns the value of a key
+     * @param key - the key to look up
+     * @param defaultValue - the value to return if the key isn't in the map
+     * @return - the value of the key, or the default value if it has none
+     */
+    public int get(String key, int defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    /**
+     * Returns whether the map has a value for the key
+     * @param key - the key in question
+     * @return - true if the key is in the map
+     */
+    public boolean containsKey(String key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Sets the value of a key
+     * @param key - the key to set, can't be null
+     * @param value - the value of the key
+     * @return - the value the key had, or 0 if it had none
+     */
+    public int put(String key, int value) {
+        if(key == null)
+            throw new NullPointerException("The key can't be null");
+
+        int hash = hashOf(key);
+        int slot = hash & mask;
+        for(; keys[slot] != null; slot = (slot + 1) & mask) {
+            if(hashes[slot] == hash && keys[slot].equals(key)) {
+                int retVal = values[slot];
+                values[slot] = value;
+                return retVal;
+            }
+        }
+
+        keys[slot] = key;
+        hashes[slot] = hash;
+        values[slot] = value;
+        if(++count >= resizeAt)
+            allocate(keys.length * 2);
+        return 0;
+    }
+
+    /**
+     * Gives a key the next index if it doesn't have one yet, so keys are numbered 0, 1, 2... as they are first seen.
+     * Meant for maps only ever filled this way, removing a key would let the next index repeat
+     * @param key - the key to number, can't be null
+     * @return - the index of the key
+     */
+    public int indexOf(String key) {
+        int slot = find(key);
+        if(slot >= 0)
+            return values[slot];
+        int index = count;
+        put(key, index);
+        return index;
+    }
+
+    /**
+     * Removes a key from the map
+     * @param key - the key to remove
+     * @param defaultValue - the value to return if the key isn't in the map
+     * @return - the value the key had, or the default value if it had none
+     */
+    public int remove(String key, int defaultValue) {
+        int slot = find(key);
+        if(slot < 0)
+            return defaultValue;
+        int retVal = values[slot];
+        --count;
+
+        // pull back any later entry of the run that would no longer be found past the new gap
+        int gap = slot;
+        for(int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+            int home = hashes[next] & mask;
+            if(((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                hashes[gap] = hashes[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = null;
+        return retVal;
+    }
+
+    /**
+     * Visits every entry in no particular order
+     * @param visitor - called with each key and its value
+     */
+    public void forEach(Visitor visitor) {
+        for(int slot = 0; slot < keys.length; ++slot)
+            if(keys[slot] != null)
+                visitor.visit(keys[slot], values[slot]);
+    }
+
+    /**
+     * Removes every entry, keeping the room they took
+     */
+    public void clear() {
+        Arrays.fill(keys, null);
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the slot holding a key
+     * @return - the slot, or -1 if the key isn't in the map
+     */
+    private int find(String key) {
+        if(key == null)
+            return -1;
+
+        int hash = hashOf(key);
+        for(int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask)
+            if(hashes[slot] == hash && keys[slot].equals(key))
+                return slot;
+        return -1;
+    }
+
+    /**
+     * Spreads the String's cached hash so its high bits affect the slot as well
+     */
+    private static int hashOf(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Moves every entry into new arrays of the given slot count
+     */
+    private void allocate(int slots) {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldValues = values;
+
+        keys = new String[slots];
+        hashes = new int[slots];
+        values = new int[slots];
+        mask = slots - 1;
+        resizeAt = (int) (slots * LOAD_FACTOR);
+
+        if(oldKeys == null)
+            return;
+        for(int i = 0; i < oldKeys.length; ++i) {
+            if(oldKeys[i] == null)
+                continue;
+            int slot = oldHashes[i] & mask;
+            while(keys[slot] != null)
+                slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            hashes[slot] = oldHashes[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.johnsbank.java.utilities;
+
+/**
+ * Thrown when a row was changed by someone else between being read and being written back,
+ * the caller should read the row again and redo its change
+ */
+public class OptimisticLockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public OptimisticLockException(String msg) { super(msg); }
+    public OptimisticLockException(String msg, Throwable cause) { super(msg, cause); }
+}
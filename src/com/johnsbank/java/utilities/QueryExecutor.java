@@ -0,0 +1,458 @@
+package com.johnsbank.java.utilities;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs queries against the database while owning the lifetime of every connection, statement and result set it
+ * opens. Rows are handed back through a mapper so callers never hold on to JDBC resources. Anything left open
+ * longer than the leak detection threshold is logged, along with where it was opened when leak tracing is on
+ */
+public class QueryExecutor {
+
+    private static final QueryExecutor instance = new QueryExecutor(JDBCConnection.getInstance());
+    private static final Logger log = Logger.getLogger(QueryExecutor.class.getName());
+
+    private final JDBCConnection connections;                 // Where connections are borrowed from
+
+    // Every statement and result set currently open along with where and when it was opened
+    private final Map<Tracked<?>, Boolean> openResources = new ConcurrentHashMap<>();
+    private volatile long leakDetectionThresholdMillis = 30000;
+    private volatile boolean leakTracing = false;             // Whether the stack is captured on every open
+    private final ScheduledExecutorService leakDetector;
+
+    // Metrics of the executor
+    private final AtomicLong openStatements = new AtomicLong();
+    private final AtomicLong openResultSets = new AtomicLong();
+    private final AtomicLong executedStatements = new AtomicLong();
+    private final AtomicLong leaksReported = new AtomicLong();
+
+    /**
+     * Binds the values of the placeholders in a statement
+     */
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Builds an object out of the current row of a result set
+     * @param <T> - The type the row is mapped to
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds the values of one item of a batch
+     * @param <T> - The type of item being written
+     */
+    @FunctionalInterface
+    public interface ItemBinder<T> {
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    QueryExecutor(JDBCConnection connections) {
+        this.connections = connections;
+        leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jdbc-leak-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leakDetector.scheduleWithFixedDelay(this::reportLeaks, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /* Adheres to the Singleton Pattern */
+    public static QueryExecutor getInstance() {return instance;}
+
+    /**
+     * Runs a query and maps the first row it returns
+     * @param sql - The SQL of the query
+     * @param binder - Binds the placeholders of the query, may be null
+     * @param mapper - Maps the row into an object
+     * @return - The mapped first row, or null if the query returned no rows
+     * @throws SQLException
+     */
+    public <T> T queryOne(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+
+        try (Connection connection = connections.getConnection();
+             Tracked<PreparedStatement> ps = prepare(connection, sql, binder);
+             Tracked<ResultSet> rs = execute(ps, sql)) {
+
+            return rs.resource.next() ? mapper.map(rs.resource) : null;
+        }
+    }
+
+    /**
+     * Runs a query and hands every mapped row to the given callback in the order they are returned
+     * @param sql - The SQL of the query
+     * @param binder - Binds the placeholders of the query, may be null
+     * @param mapper - Maps each row into an object
+     * @param sink - Receives each mapped row
+     * @throws SQLException
+     */
+    public <T> void query(String sql, Binder binder, RowMapper<T> mapper, Consumer<? super T> sink)
+            throws SQLException {
+
+        try (Connection connection = connections.getConnection();
+             Tracked<PreparedStatement> ps = prepare(connection, sql, binder);
+             Tracked<ResultSet> rs = execute(ps, sql)) {
+
+            while(rs.resource.next())
+                sink.accept(mapper.map(rs.resource));
+        }
+    }
+
+    /**
+     * Runs a query and collects every mapped row into a custom ArrayList
+     * @param sql - The SQL of the query
+     * @param binder - Binds the placeholders of the query, may be null
+     * @param mapper - Maps each row into an object
+     * @return - A custom ArrayList of the mapped rows
+     * @throws SQLException
+     */
+    public <T> MyArrayList<T> queryList(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        MyArrayList<T> retVal = new MyArrayList<>();
+        query(sql, binder, mapper, retVal::add);
+        return retVal;
+    }
+
+    /**
+     * Runs a query whose rows are fetched from the database a few at a time as they are iterated over, so only
+     * one group of rows is ever held in memory. The connection stays borrowed until the iterator is exhausted
+     * or closed, so it should be used in a try-with-resources block
+     * @param sql - The SQL of the query
+     * @param binder - Binds the placeholders of the query, may be null
+     * @param mapper - Maps each row into an object as it is reached
+     * @param fetchSize - How many rows are fetched from the database at a time
+     * @return - An iterator over the mapped rows
+     * @throws SQLException
+     */
+    public <T> CloseableIterator<T> stream(String sql, Binder binder, RowMapper<T> mapper, int fetchSize)
+            throws SQLException {
+
+        Connection connection = connections.getConnection();
+        Tracked<PreparedStatement> ps = null;
+        Tracked<ResultSet> rs = null;
+        try {
+            // The driver only uses a cursor for the fetch size inside a transaction
+            connection.setAutoCommit(false);
+            ps = prepare(connection, sql, binder);
+            ps.resource.setFetchSize(fetchSize);
+            rs = execute(ps, sql);
+            return new RowIterator<>(connection, ps, rs, mapper);
+        } catch (SQLException | RuntimeException e) {
+            if(rs != null)
+                rs.close();
+            if(ps != null)
+                ps.close();
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a statement that does not return rows
+     * @param sql - The SQL of the statement
+     * @param binder - Binds the placeholders of the statement, may be null
+     * @return - The count of rows changed
+     * @throws SQLException
+     */
+    public int update(String sql, Binder binder) throws SQLException {
+
+        try (Connection connection = connections.getConnection();
+             Tracked<PreparedStatement> ps = prepare(connection, sql, binder)) {
+
+            executedStatements.incrementAndGet();
+            return ps.resource.executeUpdate();
+        }
+    }
+
+    /**
+     * Runs a statement once for every item using JDBC batching. Each group of items is committed on its own,
+     * and if a group fails it is rolled back and retried one item at a time so the outcome of every item is known.
+     * An item that can't be bound is recorded as failed without stopping the items after it
+     * @param sql - The SQL of the statement, it should not return rows
+     * @param items - The items to write
+     * @param binder - Binds the placeholders of the statement for a single item
+     * @param batchSize - How many items are sent to the database at once
+     * @return - The outcome of each item in the order they were given
+     * @throws SQLException - if the connection itself fails
+     */
+    public <T> BatchResult batch(String sql, Iterable<? extends T> items, ItemBinder<? super T> binder,
+                                 int batchSize) throws SQLException {
+
+        if(batchSize < 1)
+            throw new IllegalArgumentException("The batch size must be at least one!");
+
+        BatchResult result = new BatchResult();
+        Object[] pending = new Object[batchSize];   // The items in the current batch, kept to retry them
+        int count = 0;
+
+        try (Connection connection = connections.getConnection();
+             Tracked<PreparedStatement> ps = prepare(connection, sql, null)) {
+
+            connection.setAutoCommit(false);
+            for(T item : items) {
+                try {
+                    binder.bind(ps.resource, item);
+                } catch (SQLException | RuntimeException e) {
+                    // the items before it are written first so the outcomes stay in the order given
+                    ps.resource.clearParameters();
+                    if(count > 0)
+                        flushBatch(connection, ps.resource, pending, count, binder, result);
+                    count = 0;
+                    result.addFailure(asSQLException(e));
+                    continue;
+                }
+                ps.resource.addBatch();
+                pending[count++] = item;
+                if(count == batchSize) {
+                    flushBatch(connection, ps.resource, pending, count, binder, result);
+                    count = 0;
+                }
+            }
+            if(count > 0)
+                flushBatch(connection, ps.resource, pending, count, binder, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sends the pending batch and commits it, falling back to one item at a time if the batch fails
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void flushBatch(Connection connection, PreparedStatement ps, Object[] pending, int count,
+                                ItemBinder<? super T> binder, BatchResult result) throws SQLException {
+        try {
+            executedStatements.incrementAndGet();
+            int[] counts = ps.executeBatch();
+            connection.commit();
+            for(int rowCount : counts)
+                result.add(rowCount);
+        } catch (BatchUpdateException e) {
+            connection.rollback();
+            ps.clearBatch();
+            for(int i = 0; i < count; ++i) {
+                try {
+                    binder.bind(ps, (T) pending[i]);
+                    executedStatements.incrementAndGet();
+                    int rowCount = ps.executeUpdate();
+                    connection.commit();
+                    result.add(rowCount);
+                } catch (SQLException | RuntimeException ex) {
+                    connection.rollback();
+                    result.addFailure(asSQLException(ex));
+                }
+            }
+        }
+
+        Arrays.fill(pending, 0, count, null);
+    }
+
+    /**
+     * Returns the failure of an item as the SQLException a BatchResult records
+     */
+    private static SQLException asSQLException(Exception e) {
+        return e instanceof SQLException ? (SQLException) e : new SQLException("Could not bind the item!", e);
+    }
+
+    /**
+     * Prepares and binds a statement, tracking it until it is closed
+     */
+    private Tracked<PreparedStatement> prepare(Connection connection, String sql, Binder binder) throws SQLException {
+
+        Tracked<PreparedStatement> ps = new Tracked<>(connection.prepareStatement(sql), sql, openStatements);
+        try {
+            if(binder != null)
+                binder.bind(ps.resource);
+        } catch (SQLException | RuntimeException e) {
+            ps.close();
+            throw e;
+        }
+        return ps;
+    }
+
+    /**
+     * Executes a query, tracking the result set until it is closed
+     */
+    private Tracked<ResultSet> execute(Tracked<PreparedStatement> ps, String sql) throws SQLException {
+        executedStatements.incrementAndGet();
+        return new Tracked<>(ps.resource.executeQuery(), sql, openResultSets);
+    }
+
+    /**
+     * Logs every resource that has been open longer than the threshold, each one is only reported once
+     */
+    private void reportLeaks() {
+
+        long threshold = leakDetectionThresholdMillis;
+        if(threshold <= 0)
+            return;
+
+        long now = System.currentTimeMillis();
+        for(Tracked<?> open : openResources.keySet()) {
+            if(!open.reported && now - open.openedAt > threshold) {
+                open.reported = true;
+                leaksReported.incrementAndGet();
+                log.log(Level.WARNING, "Possible JDBC resource leak: open for " + (now - open.openedAt) +
+                        "ms running \"" + open.sql + "\"", open.openedBy);
+            }
+        }
+    }
+
+    /**
+     * Sets how long a statement or result set may stay open before it is reported as a leak
+     * @param millis - The threshold in milliseconds, 0 turns off leak detection
+     */
+    public void setLeakDetectionThresholdMillis(long millis) {
+        leakDetectionThresholdMillis = millis;
+    }
+
+    /**
+     * Sets whether every statement and result set captures the stack that opened it, so a leak report shows
+     * where the leak came from. Capturing a stack is expensive, so this is meant for tracking a leak down
+     * @param enabled - true to capture the stack of every resource opened from now on
+     */
+    public void setLeakTracing(boolean enabled) {
+        leakTracing = enabled;
+    }
+
+    public long getLeakDetectionThresholdMillis() { return leakDetectionThresholdMillis; }
+    public boolean isLeakTracing() { return leakTracing; }
+    public long getOpenStatementCount() { return openStatements.get(); }
+    public long getOpenResultSetCount() { return openResultSets.get(); }
+    public long getExecutedStatementCount() { return executedStatements.get(); }
+    public long getLeaksReportedCount() { return leaksReported.get(); }
+
+    @Override
+    public String toString() {
+        return "QueryExecutor[openStatements=" + getOpenStatementCount() +
+                ", openResultSets=" + getOpenResultSetCount() +
+                ", executedStatements=" + getExecutedStatementCount() +
+                ", leaksReported=" + getLeaksReportedCount() + "]";
+    }
+
+    /**
+     * Iterates over the rows of an open result set, closing the result set, statement and connection once the
+     * last row is reached or the iterator is closed
+     * @param <T> - The type the rows are mapped to
+     */
+    private static final class RowIterator<T> implements CloseableIterator<T> {
+
+        private final Connection connection;
+        private final Tracked<PreparedStatement> ps;
+        private final Tracked<ResultSet> rs;
+        private final RowMapper<T> mapper;
+        private boolean hasNext;                 // Whether the result set is positioned on an unread row
+        private boolean closed = false;
+
+        RowIterator(Connection connection, Tracked<PreparedStatement> ps, Tracked<ResultSet> rs,
+                    RowMapper<T> mapper) throws SQLException {
+            this.connection = connection;
+            this.ps = ps;
+            this.rs = rs;
+            this.mapper = mapper;
+            advance();
+        }
+
+        private void advance() throws SQLException {
+            hasNext = rs.resource.next();
+            if(!hasNext)
+                close();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if(!hasNext)
+                throw new NoSuchElementException();
+            try {
+                T retVal = mapper.map(rs.resource);
+                advance();
+                return retVal;
+            } catch (SQLException e) {
+                close();
+                throw new RuntimeException("Could not read the next row from the Database!", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if(closed)
+                return;
+            closed = true;
+            hasNext = false;
+            try {
+                rs.close();
+                ps.close();
+                connection.commit();
+            } catch (SQLException e) {
+                // nothing was written, the pool rolls back whatever is left when the connection is returned
+            } finally {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    // the pool discards connections it can't reset
+                }
+            }
+        }
+    }
+
+    /**
+     * A statement or result set opened by the executor along with where and when it was opened
+     * @param <R> - The type of resource being tracked
+     */
+    private final class Tracked<R extends AutoCloseable> implements AutoCloseable {
+        final R resource;
+        final String sql;
+        final AtomicLong counter;
+        final long openedAt = System.currentTimeMillis();
+        final Throwable openedBy;
+        volatile boolean reported = false;
+
+        Tracked(R resource, String sql, AtomicLong counter) {
+            this.resource = resource;
+            this.sql = sql;
+            this.counter = counter;
+            // Capturing the stack costs more than most queries, so it is only done while tracing a leak
+            openedBy = leakTracing ? new Throwable("Opened here") : null;
+            counter.incrementAndGet();
+            openResources.put(this, Boolean.TRUE);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if(openResources.remove(this) == null)
+                return;
+            counter.decrementAndGet();
+            try {
+                resource.close();
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SQLException(e);
+            }
+        }
+    }
+}
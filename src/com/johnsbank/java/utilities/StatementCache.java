@@ -0,0 +1,157 @@
+package com.johnsbank.java.utilities;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the prepared statements of a single pooled connection keyed by their SQL text so repeated queries skip
+ * parsing and planning. The least recently used statement that isn't checked out is closed once the cache
+ * grows past its size.
+ * A connection is only ever used by one borrower at a time so the cache itself is not synchronized
+ */
+public class StatementCache {
+
+    private final Connection physical;              // The connection the statements belong to
+    private final int maxSize;                      // The most statements kept open at once
+    private final AtomicLong hits;                  // Shared with the pool to report totals
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    // Access ordered so the eldest entry is always the least recently used statement
+    private final LinkedHashMap<String, CachedStatement> entries =
+            new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            evictIdle(); // removes entries itself, so the eldest is never removed by the map
+            return false;
+        }
+    };
+
+    /**
+     * A cached statement along with whether a borrower is currently using it
+     */
+    private static class CachedStatement {
+        final PreparedStatement statement;
+        final int fetchSize;                        // The fetch size the statement was prepared with
+        boolean inUse = true;
+
+        CachedStatement(PreparedStatement statement) throws SQLException {
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+        }
+    }
+
+    StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Checks out the statement for the given SQL, preparing it if the cache doesn't hold it
+     * @param sql - The SQL text of the statement
+     * @return - The prepared statement, or null if the cached one is already checked out
+     * @throws SQLException - if the statement could not be prepared
+     */
+    PreparedStatement acquire(String sql) throws SQLException {
+
+        CachedStatement entry = entries.get(sql);
+        if(entry != null) {
+            if(entry.inUse)
+                return null; // the same SQL is already in use on this connection
+            hits.incrementAndGet();
+            entry.inUse = true;
+            return entry.statement;
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        try {
+            entry = new CachedStatement(statement);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            throw e;
+        }
+        entries.put(sql, entry);
+        return entry.statement;
+    }
+
+    /**
+     * Gives a checked out statement back to the cache, clearing anything the last user left on it
+     * @param sql - The SQL text the statement was checked out with
+     */
+    void release(String sql) {
+
+        CachedStatement entry = entries.get(sql);
+        if(entry == null)
+            return;
+
+        try {
+            ResultSet rs = entry.statement.getResultSet();
+            if(rs != null)
+                rs.close();
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.setFetchSize(entry.fetchSize);
+            entry.inUse = false;
+        } catch (SQLException e) {
+            // the statement is in a bad state, don't hand it out again
+            entries.remove(sql);
+            closeQuietly(entry.statement);
+        }
+
+        // the cache may have run over size while every old statement was checked out
+        evictIdle();
+    }
+
+    /**
+     * Closes the least recently used statements that aren't checked out until the cache is back within its
+     * size. Statements that are checked out are passed over, they are evicted once released if still needed
+     */
+    private void evictIdle() {
+        Iterator<CachedStatement> it = entries.values().iterator();
+        while(entries.size() > maxSize && it.hasNext()) {
+            CachedStatement entry = it.next();
+            if(entry.inUse)
+                continue;
+            it.remove();
+            evictions.incrementAndGet();
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /**
+     * Closes every statement held by the cache
+     */
+    void close() {
+        for(CachedStatement entry : entries.values())
+            closeQuietly(entry.statement);
+        entries.clear();
+    }
+
+    /**
+     * Returns how many statements the cache holds
+     * @return - the count of cached statements
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the statement is being thrown away, nothing more to do
+        }
+    }
+}
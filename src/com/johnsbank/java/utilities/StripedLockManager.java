@@ -0,0 +1,133 @@
+package com.johnsbank.java.utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes work on the same keys inside this process without a lock per key. Each key maps onto one of a
+ * fixed number of stripes, and work holding the stripe of a key excludes all other work on that key.
+ * When several keys are locked at once their stripes are always taken in ascending order, so two callers
+ * locking overlapping keys can never deadlock. Keys on different stripes proceed fully in parallel
+ */
+public class StripedLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;                         // stripes.length - 1, the count is a power of two
+
+    // Metrics of the locks
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();   // Acquisitions that had to wait for a stripe
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * The stripes held by a caller, closing it releases them
+     */
+    public interface Handle extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Creates a lock manager
+     * @param stripeCount - The count of stripes, rounded up to a power of two
+     */
+    public StripedLockManager(int stripeCount) {
+        if(stripeCount < 1)
+            throw new IllegalArgumentException("There must be at least one stripe!");
+        int size = Integer.highestOneBit(stripeCount);
+        if(size < stripeCount)
+            size <<= 1;
+        stripes = new ReentrantLock[size];
+        for(int i = 0; i < size; ++i)
+            stripes[i] = new ReentrantLock();
+        mask = size - 1;
+    }
+
+    /**
+     * Locks the stripes of every given key, waiting as long as it takes. Null keys are ignored
+     * @param keys - The keys to lock
+     * @return - The handle that releases the locks when closed
+     */
+    public Handle lock(String... keys) {
+
+        // find the distinct stripes of the keys in the global order
+        int[] order = new int[keys.length];
+        int count = 0;
+        for(String key : keys)
+            if(key != null)
+                order[count++] = stripeOf(key);
+        Arrays.sort(order, 0, count);
+        int distinct = 0;
+        for(int i = 0; i < count; ++i)
+            if(distinct == 0 || order[distinct - 1] != order[i])
+                order[distinct++] = order[i];
+
+        for(int i = 0; i < distinct; ++i)
+            acquire(stripes[order[i]]);
+
+        final int[] held = order;
+        final int heldCount = distinct;
+        return new Handle() {
+            private boolean closed = false;
+
+            @Override
+            public void close() {
+                if(closed)
+                    return;
+                closed = true;
+                for(int i = heldCount - 1; i >= 0; --i)
+                    stripes[held[i]].unlock();
+            }
+        };
+    }
+
+    /**
+     * Takes a stripe, recording how long it had to wait when another caller held it
+     */
+    private void acquire(ReentrantLock stripe) {
+
+        acquisitions.increment();
+        if(stripe.tryLock())
+            return;
+
+        contended.increment();
+        long start = System.nanoTime();
+        stripe.lock();
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        Metrics.raiseMax(maxWaitNanos, waited);
+    }
+
+    /**
+     * Spreads the hash of the key so keys that differ only in high bits land on different stripes
+     */
+    private int stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+
+    public int getStripeCount() { return stripes.length; }
+    public long getAcquisitionCount() { return acquisitions.sum(); }
+    public long getContendedCount() { return contended.sum(); }
+    public long getMaxWaitNanos() { return maxWaitNanos.get(); }
+
+    /**
+     * Returns the mean time spent waiting by acquisitions that had to wait
+     * @return - The average wait in nanoseconds
+     */
+    public long getAverageWaitNanos() {
+        long waits = contended.sum();
+        return waits == 0 ? 0 : waitNanos.sum() / waits;
+    }
+
+    @Override
+    public String toString() {
+        return "StripedLockManager[stripes=" + stripes.length + ", acquisitions=" + getAcquisitionCount() +
+                ", contended=" + getContendedCount() + ", avgWaitNanos=" + getAverageWaitNanos() +
+                ", maxWaitNanos=" + getMaxWaitNanos() + "]";
+    }
+}
@@ -0,0 +1,88 @@
+package com.johnsbank.java.utilities;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes identifiers that sort in the order they were made, so new rows are always added to the end of the
+ * primary key index instead of splitting pages all through it. An identifier is laid out as
+ * <pre>
+ *   bytes 0-5    milliseconds since the epoch
+ *   bytes 6-7    sequence within the millisecond
+ *   bytes 8-9    node, telling apart instances of the app
+ *   bytes 10-31  random
+ * </pre>
+ * The time and sequence never repeat or go backwards within an instance, even if the clock does,
+ * and the node and random bytes keep instances from colliding with each other.
+ * Nothing is allocated when writing into a caller's buffer
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    private static final TimeOrderedIdGenerator instance =
+            new TimeOrderedIdGenerator(Integer.getInteger("johnsbank.node",
+                    ThreadLocalRandom.current().nextInt(1 << 16)));
+
+    // Reused by nextHex so only the returned string is allocated
+    private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[ID_LENGTH]);
+    private static final ThreadLocal<char[]> hexScratch = ThreadLocal.withInitial(() -> new char[ID_LENGTH * 2]);
+
+    private final int node;
+    private final AtomicLong last = new AtomicLong(); // The last milliseconds and sequence handed out
+
+    /**
+     * Creates a generator for the given node
+     * @param node - The node of this instance of the app, only the low 16 bits are used
+     */
+    public TimeOrderedIdGenerator(int node) {
+        this.node = node & 0xFFFF;
+    }
+
+    /* Adheres to the Singleton Pattern */
+    public static TimeOrderedIdGenerator getInstance() {return instance;}
+
+    @Override
+    public void next(byte[] dest, int offset) {
+
+        if(offset < 0 || offset + ID_LENGTH > dest.length)
+            throw new IndexOutOfBoundsException("The buffer can't hold an identifier at " + offset);
+
+        writeLong(dest, offset, nextStamp());
+        dest[offset + 8] = (byte) (node >>> 8);
+        dest[offset + 9] = (byte) node;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        writeLong(dest, offset + 10, random.nextLong());
+        writeLong(dest, offset + 18, random.nextLong());
+        long tail = random.nextLong();
+        for(int i = 26; i < ID_LENGTH; ++i, tail >>>= 8)
+            dest[offset + i] = (byte) tail;
+    }
+
+    @Override
+    public String nextHex() {
+        byte[] id = scratch.get();
+        char[] hex = hexScratch.get();
+        next(id, 0);
+        Hex.encode(id, 0, ID_LENGTH, hex, 0);
+        return new String(hex);
+    }
+
+    /**
+     * Returns the milliseconds in the high 48 bits and the sequence in the low 16. Within the same millisecond,
+     * or if the clock steps back, the last value is bumped by one, overflowing into the next millisecond
+     */
+    private long nextStamp() {
+        long now = System.currentTimeMillis() << 16;
+        while(true) {
+            long prev = last.get();
+            long next = now > prev ? now : prev + 1;
+            if(last.compareAndSet(prev, next))
+                return next;
+        }
+    }
+
+    private static void writeLong(byte[] dest, int offset, long value) {
+        for(int i = 7; i >= 0; --i, value >>>= 8)
+            dest[offset + i] = (byte) value;
+    }
+}
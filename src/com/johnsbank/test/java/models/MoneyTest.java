@@ -0,0 +1,71 @@
+package com.johnsbank.test.java.models;
+
+import com.johnsbank.java.models.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parse() {
+        // Good Case
+        assertEquals(123456, Money.parse("1234.56").getCents());
+        assertEquals(-350, Money.parse("-3.5").getCents());
+        assertEquals(Money.of(12), Money.parse("12"));
+        assertEquals(Money.ZERO, Money.parse("0.00"));
+
+        // Bad Case
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1,000"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1.234"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1."));
+        assertThrows(NumberFormatException.class, () -> Money.parse(".50"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("99999999999999999999"));
+    }
+
+    @Test
+    void arithmetic() {
+        // Good Case
+        assertEquals(Money.parse("10.05"), Money.TEN.add(Money.ofCents(5)));
+        assertEquals(Money.parse("-0.01"), Money.ZERO.subtract(Money.ofCents(1)));
+        assertEquals(-1, Money.ONE.negate().signum());
+        assertTrue(Money.ONE.compareTo(Money.TEN) < 0);
+
+        // Bad Case - overflow is an error, never a wrapped balance
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).add(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+        assertThrows(ArithmeticException.class, () -> Money.of(Long.MAX_VALUE / 10));
+    }
+
+    @Test
+    void matchesBigDecimal() {
+        Random random = new Random(22);
+        NumberFormat currency = NumberFormat.getCurrencyInstance(Locale.US);
+
+        // Good Case - the database form, the plain form and the shown form all agree with BigDecimal
+        for(int i = 0; i < 10_000; ++i) {
+            long cents = random.nextLong() / (1L << random.nextInt(63));
+            BigDecimal expected = BigDecimal.valueOf(cents, 2);
+            Money money = Money.ofCents(cents);
+
+            assertEquals(expected, money.toBigDecimal());
+            assertEquals(money, Money.valueOf(expected));
+            assertEquals(expected.toPlainString(), money.toString());
+            assertEquals(money, Money.parse(money.toString()));
+            if(cents >= 0)
+                assertEquals(currency.format(expected), money.format());
+        }
+        assertEquals("-$1,234.50", Money.parse("-1234.5").format());
+
+        // Bad Case - fractions of a cent can't be held
+        assertThrows(ArithmeticException.class, () -> Money.valueOf(new BigDecimal("0.001")));
+        assertNull(Money.valueOf(null));
+    }
+}
@@ -2,20 +2,30 @@ package com.johnsbank.test.java.services;
 
 import com.johnsbank.java.app.BankingApp;
 import com.johnsbank.java.models.Account;
+import com.johnsbank.java.models.Money;
 import com.johnsbank.java.models.Transaction;
 import com.johnsbank.java.models.User;
+import com.johnsbank.java.services.AsyncBankServiceImplementation;
 import com.johnsbank.java.services.BankServiceImplementation;
 import com.johnsbank.java.utilities.HashGenerator;
 import com.johnsbank.java.utilities.MyArrayList;
+import com.johnsbank.java.utilities.MigrationRunner;
 import com.johnsbank.java.utilities.MyLinkedList;
+import com.johnsbank.java.utilities.OptimisticLockException;
+import com.johnsbank.java.utilities.QueryExecutor;
 import com.johnsbank.java.utilities.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigDecimal;
 import java.sql.Date;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +43,11 @@ class BankServiceImplementationTest {
     static Supplier<String> goodState = new State();
     static Supplier<String> goodUsername = new Username();
 
+    @BeforeAll
+    static void migrate() {
+        // The tables are built by the migrations, bring them up to date before testing against them
+        MigrationRunner.getInstance().migrate();
+    }
 
     @Test
     void addUser() {
@@ -221,6 +236,65 @@ class BankServiceImplementationTest {
         assertNotNull(list);
     }
 
+    @Test
+    void getAllUsersRoundTrips() {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        QueryExecutor executor = QueryExecutor.getInstance();
+        int count = (int)((Math.random() + 1) * 4);
+        try {
+            for (int i = 0; i < count; ++i) {
+                User newUser = buildRandomUser();
+                service.addUser(newUser);
+                service.makeOwner(service.addAccount(buildRandomAccount()), newUser);
+            }
+        } catch (ResourceNotFoundException e) {
+            e.printStackTrace();
+        }
+
+        // Good Case - the whole graph is loaded in the same amount of queries no matter how many users there are
+        long before = executor.getExecutedStatementCount();
+        MyArrayList<User> users = service.getAllUsers();
+        assertEquals(4, executor.getExecutedStatementCount() - before);
+        for(User user : users) {
+            assertNotNull(user.getAccounts());
+            assertNotNull(user.getTransactions());
+        }
+
+        before = executor.getExecutedStatementCount();
+        MyArrayList<Account> accounts = service.getAllAccounts();
+        assertEquals(4, executor.getExecutedStatementCount() - before);
+        for(Account account : accounts) {
+            assertNotNull(account.getOwners());
+            assertNotNull(account.getTransactions());
+        }
+    }
+
+    @Test
+    void loadUserAsync() {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        AsyncBankServiceImplementation asyncService = AsyncBankServiceImplementation.getInstance();
+        User newUser = buildRandomUser();
+        service.addUser(newUser);
+        try {
+            for(int i = 0; i < 3; ++i)
+                service.makeOwner(service.addAccount(buildRandomAccount()), newUser);
+        } catch (ResourceNotFoundException e) {
+            e.printStackTrace();
+        }
+
+        // Good Case - the accounts and their owners arrive together, the history is left to be paged
+        User loaded = asyncService.loadUser(newUser).join();
+        assertEquals(3, loaded.getAccounts().getCount());
+        for(Account account : loaded.getAccounts())
+            assertEquals(1, account.getOwners().getCount());
+        assertNull(loaded.getTransactions());
+
+        // Bad Case - a missing user completes the future exceptionally
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> asyncService.getUser(hash.getMessageDigest(UUID.randomUUID().toString())).join());
+        assertTrue(e.getCause() instanceof ResourceNotFoundException);
+    }
+
     @Test
     void getAllOwners() {
         BankServiceImplementation service = BankServiceImplementation.getInstance();
@@ -271,7 +345,7 @@ class BankServiceImplementationTest {
         newAccount.setAccountID(hash.getMessageDigest(UUID.randomUUID().toString()));
         testAccount = service.addAccount(newAccount);
         assertNull(testAccount);
-        newAccount.setBalance(new BigDecimal(0));
+        newAccount.setBalance(Money.of(0));
         testAccount = service.addAccount(newAccount);
         assertNull(testAccount);
 
@@ -302,6 +376,33 @@ class BankServiceImplementationTest {
         assertNotNull(newAccount);
     }
 
+    @Test
+    void getAccountCached() {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        QueryExecutor executor = QueryExecutor.getInstance();
+        Account newAccount = service.addAccount(buildRandomAccount());
+
+        try {
+            // Good Case - the second read is served from the cache
+            service.getAccount(newAccount.getAccountID());
+            long before = executor.getExecutedStatementCount();
+            Account cached = service.getAccount(newAccount.getAccountID());
+            assertEquals(0, executor.getExecutedStatementCount() - before);
+            assertEquals(newAccount.getAccountID(), cached.getAccountID());
+
+            // Good Case - changing a returned account doesn't change the cache
+            cached.setActive(!cached.isActive());
+            assertEquals(newAccount.isActive(), service.getAccount(newAccount.getAccountID()).isActive());
+
+            // Good Case - an update is seen by the next read
+            cached.setBalance(cached.getBalance().add(Money.ONE));
+            service.updateAccount(cached);
+            assertEquals(0, cached.getBalance().compareTo(service.getAccount(newAccount.getAccountID()).getBalance()));
+        } catch (ResourceNotFoundException ex) {
+            ex.printStackTrace();
+        }
+    }
+
     @Test
     void updateAccount() {
         BankServiceImplementation service = BankServiceImplementation.getInstance();
@@ -342,6 +443,43 @@ class BankServiceImplementationTest {
         }
     }
 
+    @Test
+    void updateAccountStaleVersion() {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        Account newAccount = service.addAccount(buildRandomAccount());
+
+        try {
+            Account first = service.getAccount(newAccount.getAccountID());
+            Account second = service.getAccount(newAccount.getAccountID());
+
+            // Good Case - the first writer wins and the version moves on
+            first.setBalance(first.getBalance().add(Money.TEN));
+            Account changed = service.updateAccount(first);
+            assertEquals(first.getVersion() + 1, changed.getVersion());
+
+            // Bad Case - the second writer read the old version and would overwrite the first change
+            second.setActive(false);
+            assertThrows(OptimisticLockException.class, () -> service.updateAccount(second));
+            assertEquals(0, service.getAccount(newAccount.getAccountID()).getBalance().compareTo(Money.TEN));
+
+            // Good Case - the service's own changes reread and retry instead
+            assertTrue(service.makeDeposit(second, Money.ONE));
+            assertTrue(service.holdAccount(second));
+            Account current = service.getAccount(newAccount.getAccountID());
+            assertEquals(0, current.getBalance().compareTo(Money.of(11)));
+            assertFalse(current.isActive());
+
+            // Bad Case - a malformed id is refused like a missing account
+            Account malformed = new Account(current);
+            malformed.setAccountID("not-an-id");
+            assertFalse(service.holdAccount(malformed));
+            assertFalse(service.removeHold(malformed));
+            assertThrows(ResourceNotFoundException.class, () -> service.getAccount("not-an-id"));
+        } catch (ResourceNotFoundException ex) {
+            ex.printStackTrace();
+        }
+    }
+
     @Test
     void deleteAccount() {
         BankServiceImplementation service = BankServiceImplementation.getInstance();
@@ -410,9 +548,9 @@ class BankServiceImplementationTest {
         Account from = buildRandomAccount();
         service.addAccount(to);
         service.addAccount(from);
-        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), new BigDecimal(-50),
+        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), Money.of(-50),
                 null, null);
-        service.makeDeposit(from, new BigDecimal(50));
+        service.makeDeposit(from, Money.of(50));
 
         // bad case
         assertFalse(service.sendTransaction(null));
@@ -421,16 +559,99 @@ class BankServiceImplementationTest {
         assertFalse(service.sendTransaction(newTransaction));
         newTransaction.setFrom(from.getAccountID());
         assertFalse(service.sendTransaction(newTransaction));
-        newTransaction.setAmount(new BigDecimal(50));
+        newTransaction.setAmount(Money.of(50));
 
         // good case
         assertTrue(service.sendTransaction(newTransaction));
-        newTransaction = new Transaction(new Date(System.currentTimeMillis()), new BigDecimal(50),
+        newTransaction = new Transaction(new Date(System.currentTimeMillis()), Money.of(50),
                 to.getAccountID(), hash.getMessageDigest(UUID.randomUUID().toString()));
         assertTrue(service.sendTransaction(newTransaction));
 
     }
 
+    @Test
+    void sendTransactionConcurrently() throws InterruptedException {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        Account to = service.addAccount(buildRandomAccount());
+        Account from = service.addAccount(buildRandomAccount());
+        service.makeDeposit(from, Money.of(100));
+
+        // Good Case - twenty racing transfers of 10 out of 100, exactly ten go through and nothing is lost
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger sent = new AtomicInteger();
+        for(int i = 0; i < 20; ++i)
+            pool.execute(() -> {
+                Transaction transfer = new Transaction(new Date(System.currentTimeMillis()),
+                        Money.of(10), from.getAccountID(), to.getAccountID());
+                if(service.sendTransaction(transfer))
+                    sent.incrementAndGet();
+            });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(10, sent.get());
+        try {
+            assertEquals(0, service.getAccount(from.getAccountID()).getBalance().compareTo(Money.ZERO));
+            assertEquals(0, service.getAccount(to.getAccountID()).getBalance().compareTo(Money.of(100)));
+        } catch (ResourceNotFoundException ex) {
+            ex.printStackTrace();
+        }
+
+        // Bad Case - an account can't send to itself
+        assertFalse(service.sendTransaction(new Transaction(new Date(System.currentTimeMillis()),
+                Money.of(10), to.getAccountID(), to.getAccountID())));
+    }
+
+    @Test
+    void makeDepositGroupCommit() throws InterruptedException {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        MyArrayList<Account> accounts = new MyArrayList<>();
+        for(int i = 0; i < 10; ++i)
+            accounts.add(service.addAccount(buildRandomAccount()));
+
+        service.enableGroupCommit(50, 5);
+        try {
+            // Good Case - a burst of deposits is written in fewer commits than deposits
+            ExecutorService pool = Executors.newFixedThreadPool(20);
+            AtomicInteger made = new AtomicInteger();
+            for(int i = 0; i < 100; ++i) {
+                Account account = accounts.get(i % 10);
+                Money amount = Money.of(i + 1);
+                pool.execute(() -> {
+                    if(service.makeDeposit(account, amount))
+                        made.incrementAndGet();
+                });
+            }
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+            assertEquals(100, made.get());
+            assertTrue(service.getGroupCommitLedger().getBatchCount() < 100);
+
+            // Bad Case - a withdrawal the account can't cover is refused without failing its group
+            assertFalse(service.makeWithdrawal(accounts.get(0), Money.of(1_000_000)));
+            assertTrue(service.makeWithdrawal(accounts.get(0), Money.ONE));
+
+            // Bad Case - malformed entries are refused before they can join a group
+            Account malformed = new Account(accounts.get(1));
+            malformed.setAccountID("not-an-id");
+            assertFalse(service.makeDeposit(malformed, Money.ONE));
+            assertFalse(service.makeDeposit(accounts.get(1), null));
+            assertFalse(service.makeWithdrawal(accounts.get(1), Money.ONE.negate()));
+        } finally {
+            service.disableGroupCommit();
+        }
+
+        try {
+            // every deposit of i + 1 landed on account i % 10, less the one withdrawal
+            Money total = Money.ZERO;
+            for(Account account : accounts)
+                total = total.add(service.getAccount(account.getAccountID()).getBalance());
+            assertEquals(0, total.compareTo(Money.of(5050 - 1)));
+        } catch (ResourceNotFoundException ex) {
+            ex.printStackTrace();
+        }
+    }
+
     @Test
     void getTransaction() {
         BankServiceImplementation service = BankServiceImplementation.getInstance();
@@ -438,9 +659,9 @@ class BankServiceImplementationTest {
         Account from = buildRandomAccount();
         service.addAccount(to);
         service.addAccount(from);
-        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), new BigDecimal(50),
+        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), Money.of(50),
                 from.getAccountID(), to.getAccountID());
-        service.makeDeposit(from, new BigDecimal(50));
+        service.makeDeposit(from, Money.of(50));
 
         // Good Case
         assertTrue(service.sendTransaction(newTransaction));
@@ -473,9 +694,9 @@ class BankServiceImplementationTest {
         Account from = buildRandomAccount();
         service.addAccount(to);
         service.addAccount(from);
-        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), new BigDecimal(50),
+        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), Money.of(50),
                 from.getAccountID(), to.getAccountID());
-        service.makeDeposit(from, new BigDecimal(50));
+        service.makeDeposit(from, Money.of(50));
 
         // Good Case
         service.sendTransaction(newTransaction);
@@ -490,13 +711,40 @@ class BankServiceImplementationTest {
 
     }
 
+    @Test
+    void getAllTransactionsOrdered() {
+        BankServiceImplementation service = BankServiceImplementation.getInstance();
+        Account account = service.addAccount(buildRandomAccount());
+        for(int i = 1; i <= 5; ++i)
+            service.makeDeposit(account, Money.of(i));
+
+        // Good Case - the history comes back newest first, the sequence breaking ties in time
+        try {
+            MyLinkedList<Transaction> history = service.getAllTransactions(account);
+            Transaction previous = null;
+            int count = 0;
+            for(Transaction transaction : history) {
+                if(previous != null) {
+                    int byTime = previous.getMadeAt().compareTo(transaction.getMadeAt());
+                    assertTrue(byTime > 0 || (byTime == 0 && previous.getSequence() > transaction.getSequence()));
+                }
+                previous = transaction;
+                ++count;
+            }
+            assertEquals(5, count);
+            assertEquals(0, history.getAt(0).getAmount().compareTo(Money.of(5)));
+        } catch (ResourceNotFoundException ex) {
+            ex.printStackTrace();
+        }
+    }
+
     @Test
     void testGetAllTransactions1() {
         BankServiceImplementation service = BankServiceImplementation.getInstance();
         User owner = buildRandomUser();
         Account to = buildRandomAccount();
         Account from = buildRandomAccount();
-        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), new BigDecimal(50),
+        Transaction newTransaction = new Transaction(new Date(System.currentTimeMillis()), Money.of(50),
                 from.getAccountID(), to.getAccountID());
         service.addAccount(to);
         service.addAccount(from);
@@ -506,7 +754,7 @@ class BankServiceImplementationTest {
         } catch (ResourceNotFoundException e) {
             e.printStackTrace();
         }
-        service.makeDeposit(from, new BigDecimal(50));
+        service.makeDeposit(from, Money.of(50));
 
         // Good Case
         service.sendTransaction(newTransaction);
@@ -595,7 +843,7 @@ class BankServiceImplementationTest {
         Account retVal = new Account();
 
         retVal.setType(Account.AccountType.values()[(int)(Math.random() * 6)]);
-        retVal.setBalance(new BigDecimal(0));
+        retVal.setBalance(Money.of(0));
         retVal.setActive(true);
         retVal.setAccountID(hash.getMessageDigest(UUID.randomUUID().toString()));
 
@@ -0,0 +1,68 @@
+package com.johnsbank.test.java.services;
+
+import com.johnsbank.java.models.Money;
+import com.johnsbank.java.models.Transaction;
+import com.johnsbank.java.repositories.BankRepository;
+import com.johnsbank.java.services.GroupCommitLedger;
+import com.johnsbank.java.utilities.BatchResult;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitLedgerTest {
+
+    @Test
+    void shutdownDuringFlushWritesQueued() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger written = new AtomicInteger();
+
+        // Stands in for the database. A writer that is interrupted fails to borrow a connection as the pool does,
+        // and the first group is held inside the write, deaf to interrupts like a socket, until the test lets it go
+        BankRepository repository = (BankRepository) Proxy.newProxyInstance(BankRepository.class.getClassLoader(),
+                new Class<?>[]{BankRepository.class}, (proxy, method, args) -> {
+                    if(!method.getName().equals("applyTransactions"))
+                        throw new UnsupportedOperationException(method.getName());
+                    if(Thread.currentThread().isInterrupted())
+                        throw new IllegalStateException("Interrupted while borrowing a connection!");
+                    flushing.countDown();
+                    while(finish.getCount() > 0)
+                        LockSupport.parkNanos(1_000_000);
+                    for(Object ignored : (Iterable<?>) args[0])
+                        written.incrementAndGet();
+                    return new BatchResult();
+                });
+
+        GroupCommitLedger ledger = new GroupCommitLedger(repository, 1, 0);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> ledger.submit(deposit()));
+        assertTrue(flushing.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> ledger.submit(deposit()));
+        while(ledger.getQueuedCount() == 0)
+            Thread.sleep(1);
+
+        // Good Case - shutting down while a group is being written still writes the group queued behind it
+        CompletableFuture<Void> stopped = CompletableFuture.runAsync(ledger::shutdown);
+        Thread.sleep(50);
+        finish.countDown();
+        stopped.get(10, TimeUnit.SECONDS);
+        assertFalse(first.get(10, TimeUnit.SECONDS));   // the stand in applies nothing, but nothing failed
+        assertFalse(second.get(10, TimeUnit.SECONDS));
+        assertEquals(2, written.get());
+
+        // Bad Case - nothing is taken after shutdown
+        assertThrows(IllegalStateException.class, () -> ledger.submit(deposit()));
+    }
+
+    private static Transaction deposit() {
+        return new Transaction(new Date(System.currentTimeMillis()), Money.ONE, null,
+                new String(new char[64]).replace('\0', 'a'));
+    }
+}
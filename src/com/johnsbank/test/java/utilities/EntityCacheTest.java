@@ -0,0 +1,35 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.EntityCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    @Test
+    void stalePutAfterInvalidate() {
+        EntityCache<String, String> cache = new EntityCache<>(16, 60_000);
+
+        // Good Case - nothing changed while the entity was read
+        long stamp = cache.stamp();
+        assertTrue(cache.put("account", "balance 10", stamp));
+        assertEquals("balance 10", cache.get("account"));
+
+        // Bad Case - a write invalidated the entity while a miss was still reading the old row
+        stamp = cache.stamp();
+        cache.invalidate("account");
+        assertFalse(cache.put("account", "balance 10", stamp));
+        assertNull(cache.get("account"));
+        assertEquals(1, cache.getStalePutCount());
+
+        // Good Case - a read that started after the write is cached
+        assertTrue(cache.put("account", "balance 20", cache.stamp()));
+        assertEquals("balance 20", cache.get("account"));
+
+        // Bad Case - clearing the cache stops every read already in flight
+        stamp = cache.stamp();
+        cache.clear();
+        assertFalse(cache.put("other", "balance 30", stamp));
+    }
+}
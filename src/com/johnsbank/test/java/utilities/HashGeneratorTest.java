@@ -0,0 +1,82 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.HashGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashGeneratorTest {
+
+    private static final HashGenerator hash = HashGenerator.getInstance();
+
+    @Test
+    void getMessageDigest() throws Exception {
+        // Good Case - the known SHA-256 of "abc"
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                hash.getMessageDigest("abc"));
+        assertEquals(hash.getMessageDigest("abc"), hash.getMessageDigest(new char[] {'a', 'b', 'c'}));
+
+        // Good Case - text outside of ASCII hashes the same as its UTF-8 bytes
+        String text = "caf\u00e9 \u2615 \ud83d\udcb0 " + UUID.randomUUID();
+        MessageDigest reference = MessageDigest.getInstance("SHA-256");
+        byte[] expected = reference.digest(text.getBytes(StandardCharsets.UTF_8));
+        byte[] actual = new byte[HashGenerator.HASH_LENGTH + 2];
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        hash.digest(input, 0, input.length, actual, 2);
+        for(int i = 0; i < expected.length; ++i)
+            assertEquals(expected[i], actual[i + 2]);
+
+        char[] hex = new char[64];
+        hash.getMessageDigest(text, hex, 0);
+        assertEquals(hash.getMessageDigest(text), new String(hex));
+    }
+
+    @Test
+    void digestRejectsShortBuffer() {
+        // Bad Case - there is no room for the hash
+        byte[] input = {1, 2, 3};
+        assertThrows(IllegalArgumentException.class, () -> hash.digest(input, 0, 3, new byte[16], 0));
+
+        // Good Case - a failed hash doesn't leave anything behind for the next one
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                hash.getMessageDigest("abc"));
+    }
+
+    @Test
+    void getMessageDigestConcurrently() throws Exception {
+        List<String> messages = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for(int i = 0; i < 200; ++i) {
+            messages.add(UUID.randomUUID().toString());
+            expected.add(hash.getMessageDigest(messages.get(i)));
+        }
+
+        // Good Case - threads hashing at once never see each other's messages
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for(int t = 0; t < 8; ++t) {
+                results.add(pool.submit(() -> {
+                    for(int round = 0; round < 50; ++round)
+                        for(int i = 0; i < messages.size(); ++i)
+                            if(!expected.get(i).equals(hash.getMessageDigest(messages.get(i))))
+                                return false;
+                    return true;
+                }));
+            }
+            for(Future<Boolean> result : results)
+                assertTrue(result.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.HashGenerator;
+import com.johnsbank.java.utilities.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HexTest {
+
+    @Test
+    void roundTrip() {
+        String id = HashGenerator.getInstance().getMessageDigest(UUID.randomUUID().toString());
+
+        // Good Case - an id survives being stored as bytes
+        byte[] raw = Hex.decode(id);
+        assertEquals(32, raw.length);
+        assertEquals(id, Hex.encode(raw));
+        assertArrayEquals(raw, Hex.decode(id.toUpperCase()));
+        assertArrayEquals(new byte[] {0, 15, -1, 127, -128}, Hex.decode("000fff7f80"));
+
+        // Good Case - missing ids stay missing
+        assertNull(Hex.encode(null));
+        assertNull(Hex.decode(null));
+    }
+
+    @Test
+    void decodeRejectsMalformed() {
+        // Bad Case
+        assertThrows(IllegalArgumentException.class, () -> Hex.decode("abc"));
+        assertThrows(IllegalArgumentException.class, () -> Hex.decode("zz"));
+    }
+}
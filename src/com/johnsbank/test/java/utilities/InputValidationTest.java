@@ -0,0 +1,87 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.InputValidation;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputValidationTest {
+
+    // The regular expressions the checks replaced, every check must agree with its expression
+    private static final Pattern EMAIL = Pattern.compile(
+            "([a-zA-Z0-9]{1,}[._\\-]{0,1}){1,}[a-zA-Z0-9][@][a-zA-Z0-9\\-]{1,}[.][a-zA-Z0-9\\-]{2,}");
+    private static final Pattern AMOUNT = Pattern.compile("(0|[1-9][0-9]{0,2})(,\\d{3})*(\\.\\d{2})?");
+
+    @Test
+    void matchesReplacedExpressions() {
+        Random random = new Random(21);
+
+        // Good Case - random strings built from the characters each rule cares about
+        agree(random, "ab1Z._-@.", 14, EMAIL, InputValidation::isEmail);
+        agree(random, "0123,.", 12, AMOUNT, InputValidation::isAmount);
+        agree(random, "09af", 64, Pattern.compile("[a-f0-9]{64}"), InputValidation::isHexId);
+        agree(random, "aZ9._-!", 27, Pattern.compile("[a-zA-Z0-9._\\-]{1,25}"), InputValidation::isUsername);
+        agree(random, "0-", 10, Pattern.compile("[0-9]{5}([-][0-9]{4})?"), InputValidation::isZipCode);
+    }
+
+    @Test
+    void validate() {
+        // Good Case
+        assertTrue(InputValidation.isEmail("john.salguero@johns-bank.com"));
+        assertTrue(InputValidation.isPhoneNumber("(425) 555-0100"));
+        assertTrue(InputValidation.isSSN("123-45-6789"));
+        assertTrue(InputValidation.isStateCode("WA"));
+        assertTrue(InputValidation.isStateFormat("ZZ"));
+        assertTrue(InputValidation.isPassword("Passw0rd!"));
+        assertTrue(InputValidation.isAmount("1,000,000.25"));
+        assertTrue(InputValidation.isAmount("999,999,999,999,999.99"));
+
+        // Bad Case
+        assertFalse(InputValidation.isEmail("a@bank.com"));
+        assertFalse(InputValidation.isEmail("john..salguero@bank.com"));
+        assertFalse(InputValidation.isPhoneNumber("(425) 555 0100"));
+        assertFalse(InputValidation.isSSN("123-456-789"));
+        assertFalse(InputValidation.isStateCode("ZZ"));
+        assertFalse(InputValidation.isStateCode("wa"));
+        assertFalse(InputValidation.isPassword("password"));
+        assertFalse(InputValidation.isAmount("01.00"));
+        assertFalse(InputValidation.isAmount("1,000,000,000,000,000"));
+
+        // Bad Case - nothing is valid
+        assertFalse(InputValidation.isEmail(null));
+        assertFalse(InputValidation.isHexId(null));
+        assertFalse(InputValidation.isAddressLine2(null));
+    }
+
+    @Test
+    void rejectsHostileInputQuickly() {
+        // Bad Case - the input that makes the email expression backtrack
+        StringBuilder hostile = new StringBuilder();
+        for(int i = 0; i < 100_000; ++i)
+            hostile.append("a.");
+        hostile.append('!');
+
+        assertTimeoutPreemptively(java.time.Duration.ofSeconds(1), () -> {
+            assertFalse(InputValidation.isEmail(hostile));
+        });
+    }
+
+    /**
+     * Generates strings from the given characters and fails if the check and the expression ever disagree
+     */
+    private static void agree(Random random, String alphabet, int maxLength,
+                              Pattern expected, Predicate<String> check) {
+        for(int round = 0; round < 20_000; ++round) {
+            int length = random.nextInt(maxLength + 1);
+            StringBuilder input = new StringBuilder(length);
+            for(int i = 0; i < length; ++i)
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            String text = input.toString();
+            assertEquals(expected.matcher(text).matches(), check.test(text), "Disagreed on \"" + text + '"');
+        }
+    }
+}
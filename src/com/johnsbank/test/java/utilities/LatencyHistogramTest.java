@@ -0,0 +1,40 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void getPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Bad Case - nothing recorded
+        assertEquals(0, histogram.getPercentile(99));
+
+        // Good Case - 1..10000 microseconds, each percentile within an eighth of the true value
+        for(long micros = 1; micros <= 10_000; ++micros)
+            histogram.record(micros * 1_000);
+        assertEquals(10_000, histogram.getCount());
+        for(double percentile : new double[] {50, 90, 99, 99.9, 100}) {
+            long expected = (long) (percentile * 100) * 1_000;
+            long actual = histogram.getPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected + expected / 8,
+                    "p" + percentile + " was " + actual + ", expected about " + expected);
+        }
+
+        // Good Case - small and extreme durations land somewhere sensible
+        LatencyHistogram edges = new LatencyHistogram();
+        edges.record(-5);
+        edges.record(3);
+        edges.record(Long.MAX_VALUE);
+        assertEquals(0, edges.getPercentile(1));
+        assertEquals(3, edges.getPercentile(50));
+        assertEquals(Long.MAX_VALUE, edges.getPercentile(100));
+
+        // Bad Case
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+}
@@ -0,0 +1,68 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.JDBCConnection;
+import com.johnsbank.java.utilities.MigrationRunner;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    @Test
+    void migrate() {
+        MigrationRunner runner = MigrationRunner.getInstance();
+        runner.migrate();
+
+        // Good Case - once the database is up to date there is nothing left to apply
+        assertEquals(0, runner.migrate());
+    }
+
+    @Test
+    void queriesUseIndexes() throws SQLException {
+        MigrationRunner.getInstance().migrate();
+
+        String account = "decode('" + new String(new char[64]).replace('\0', 'a') + "', 'hex')";
+        try (Connection connection = JDBCConnection.getInstance().getConnection();
+             Statement statement = connection.createStatement()) {
+            // the test tables are small enough that a scan would win on cost, so take scans off the table
+            statement.execute("SET enable_seqscan = off");
+            try {
+                // Good Case - account history is read from the history indexes, already in order
+                assertTrue(plan(statement, "SELECT * FROM \"Transactions\" WHERE \"From_Account\" = " + account +
+                        " ORDER BY \"Made_At\" DESC, \"Sequence\" DESC").contains("Transactions_From_History"));
+                assertTrue(plan(statement, "SELECT * FROM \"Transactions\" WHERE \"To_Account\" = " + account +
+                        " ORDER BY \"Made_At\" DESC, \"Sequence\" DESC").contains("Transactions_To_History"));
+
+                // Good Case - owners of an account are found through the account index
+                assertTrue(plan(statement, "SELECT * FROM \"User_Accounts\" WHERE \"Account_ID\" = " + account)
+                        .contains("User_Accounts_Account"));
+
+                // Bad Case - no query filters on the day made, so it is never indexed
+                try (ResultSet rs = statement.executeQuery("SELECT count(*) FROM pg_indexes " +
+                        "WHERE indexname IN ('Transactions_From_Date', 'Transactions_To_Date')")) {
+                    assertTrue(rs.next());
+                    assertEquals(0, rs.getInt(1));
+                }
+            } finally {
+                statement.execute("RESET enable_seqscan");
+            }
+        }
+    }
+
+    /**
+     * Returns the plan the database would use for a query
+     */
+    private static String plan(Statement statement, String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet rs = statement.executeQuery("EXPLAIN " + query)) {
+            while(rs.next())
+                plan.append(rs.getString(1)).append('\n');
+        }
+        return plan.toString();
+    }
+}
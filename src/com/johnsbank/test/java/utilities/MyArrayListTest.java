@@ -0,0 +1,77 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.MyArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyArrayListTest {
+
+    @Test
+    void insertOrdered() {
+        Random random = new Random(23);
+        MyArrayList<Integer> ordered = new MyArrayList<>();
+        MyArrayList<Integer> sorted = new MyArrayList<>(0);
+        List<Integer> expected = new ArrayList<>();
+
+        // Good Case - both kinds of comparator keep the list in order
+        for(int i = 0; i < 2_000; ++i) {
+            int value = random.nextInt(500);
+            ordered.insertOrdered(value, (a, b) -> a < b);
+            sorted.insertSorted(value, Comparator.naturalOrder());
+            expected.add(value);
+        }
+        Collections.sort(expected);
+        for(int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), ordered.get(i));
+            assertEquals(expected.get(i), sorted.get(i));
+        }
+
+        // Good Case - equal elements go after the ones already there
+        MyArrayList<String> words = new MyArrayList<>();
+        words.insertSorted("bb", Comparator.comparingInt(String::length));
+        words.insertSorted("a", Comparator.comparingInt(String::length));
+        assertEquals(2, words.insertSorted("cc", Comparator.comparingInt(String::length)));
+        assertEquals("[a, bb, cc]", words.toString());
+    }
+
+    @Test
+    void sortIsStable() {
+        MyArrayList<String> words = new MyArrayList<>();
+        for(String word : new String[] {"pear", "fig", "plum", "kiwi", "date", "apple", "yam"})
+            words.add(word);
+
+        // Good Case - words of the same length keep the order they were added in
+        words.sort(Comparator.comparingInt(String::length));
+        assertEquals("[fig, yam, pear, plum, kiwi, date, apple]", words.toString());
+    }
+
+    @Test
+    void addAllAndCapacity() {
+        MyArrayList<Integer> list = new MyArrayList<>(4);
+        for(int i = 0; i < 3; ++i)
+            list.add(i);
+
+        // Good Case
+        list.addAll(list);
+        list.addAll(new Integer[] {7, 8, 9}, 1, 2);
+        assertEquals("[0, 1, 2, 0, 1, 2, 8, 9]", list.toString());
+
+        list.ensureCapacity(100);
+        assertEquals(100, list.capacity());
+        list.trimToSize();
+        assertEquals(list.size(), list.capacity());
+        list.add(10);
+        assertEquals(9, list.size());
+
+        // Bad Case
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addAll(new Integer[] {1}, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MyArrayList<Integer>(-1));
+    }
+}
@@ -0,0 +1,40 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.MyLinkedList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyLinkedListTest {
+
+    @Test
+    void insertOrdered() {
+        MyLinkedList<Integer> list = new MyLinkedList<>();
+
+        // Good Case - every element can be reached by index and the end of the list is kept
+        for(int value : new int[] {5, 1, 9, 3})
+            list.insertOrdered(value, (a, b) -> a < b);
+        assertEquals("(1, 3, 5, 9)", list.toString());
+        assertEquals(Integer.valueOf(9), list.getAt(3));
+        assertEquals(5, list.add(12));
+        assertEquals("(1, 3, 5, 9, 12)", list.toString());
+
+        // Bad Case
+        assertNull(list.getAt(5));
+    }
+
+    @Test
+    void insertAt() {
+        MyLinkedList<String> list = new MyLinkedList<>();
+
+        // Good Case
+        assertTrue(list.insertAt(0, "b"));
+        assertTrue(list.insertAt(0, "a"));
+        assertTrue(list.insertAt(2, "c"));
+        assertEquals("(a, b, c)", list.toString());
+        assertEquals(4, list.add("d"));
+
+        // Bad Case
+        assertFalse(list.insertAt(9, "z"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.MyIntArrayList;
+import com.johnsbank.java.utilities.MyLongArrayList;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyLongArrayListTest {
+
+    @Test
+    void addAndSum() {
+        MyLongArrayList cents = new MyLongArrayList(0);
+
+        // Good Case
+        for(long i = 1; i <= 100; ++i)
+            assertEquals(i - 1, cents.add(i * 100));
+        assertEquals(505_000, cents.sum());
+        assertEquals(4, cents.indexOf(500));
+        assertEquals(500, cents.removeAt(4));
+        assertEquals(99, cents.size());
+        assertEquals(-1, cents.indexOf(500));
+
+        cents.set(0, 9_999);
+        cents.sort();
+        assertEquals(9_999, cents.get(97));
+        assertEquals(10_000, cents.get(98));
+        cents.addAll(cents);
+        assertEquals(198, cents.toArray().length);
+
+        // Bad Case
+        assertThrows(IndexOutOfBoundsException.class, () -> cents.get(198));
+        MyLongArrayList huge = new MyLongArrayList();
+        huge.add(Long.MAX_VALUE);
+        huge.add(1);
+        assertThrows(ArithmeticException.class, huge::sum);
+    }
+
+    @Test
+    void intList() {
+        MyIntArrayList indexes = new MyIntArrayList();
+
+        // Good Case - a total of ints doesn't overflow
+        indexes.add(Integer.MAX_VALUE);
+        indexes.add(Integer.MAX_VALUE);
+        assertEquals(2L * Integer.MAX_VALUE, indexes.sum());
+
+        indexes.add(-5);
+        indexes.sort();
+        assertEquals("[-5, 2147483647, 2147483647]", indexes.toString());
+        indexes.trimToSize();
+        assertEquals(3, indexes.capacity());
+        indexes.clear();
+        assertTrue(indexes.isEmpty());
+
+        // Bad Case
+        assertThrows(IndexOutOfBoundsException.class, () -> indexes.removeAt(0));
+    }
+}
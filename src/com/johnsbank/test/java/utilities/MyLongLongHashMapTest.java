@@ -0,0 +1,87 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.MyLongLongHashMap;
+import com.johnsbank.java.utilities.MyStringIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MyLongLongHashMapTest {
+
+    @Test
+    void matchesHashMap() {
+        Random random = new Random(25);
+        MyLongLongHashMap map = new MyLongLongHashMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+
+        // Good Case - a random mix of changes, with few enough keys that they collide and are removed often
+        for(int i = 0; i < 200_000; ++i) {
+            long key = random.nextInt(2_000) - 1_000;
+            long value = random.nextLong();
+            switch(random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.getOrDefault(key, 0L).longValue(), map.put(key, value));
+                    expected.put(key, value);
+                    break;
+                case 1:
+                    Long removed = expected.remove(key);
+                    assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+                    break;
+                case 2:
+                    long delta = random.nextInt(100);
+                    expected.merge(key, delta, Long::sum);
+                    assertEquals(expected.get(key).longValue(), map.addTo(key, delta));
+                    break;
+                default:
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    assertEquals(expected.getOrDefault(key, 7L).longValue(), map.get(key, 7));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+
+        // Bad Case - a total that can't be held is an error
+        map.put(5, Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> map.addTo(5, 1));
+    }
+
+    @Test
+    void stringIntMap() {
+        Random random = new Random(25);
+        MyStringIntHashMap map = new MyStringIntHashMap();
+        Map<String, Integer> expected = new HashMap<>();
+
+        // Good Case
+        for(int i = 0; i < 100_000; ++i) {
+            String key = "account-" + random.nextInt(3_000);
+            if(random.nextBoolean()) {
+                int value = random.nextInt();
+                assertEquals(expected.getOrDefault(key, 0).intValue(), map.put(key, value));
+                expected.put(key, value);
+            } else {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for(Map.Entry<String, Integer> entry : expected.entrySet())
+            assertEquals(entry.getValue().intValue(), map.get(entry.getKey(), -1));
+
+        // Good Case - keys are numbered in the order they are first seen
+        MyStringIntHashMap indexes = new MyStringIntHashMap();
+        assertEquals(0, indexes.indexOf("alice"));
+        assertEquals(1, indexes.indexOf("bob"));
+        assertEquals(0, indexes.indexOf("alice"));
+
+        // Bad Case
+        assertEquals(-1, map.get(null, -1));
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+    }
+}
@@ -0,0 +1,76 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.MySkipList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MySkipListTest {
+
+    @Test
+    void add() {
+        Random random = new Random(24);
+        MySkipList<Integer, Integer> list = new MySkipList<>(value -> value, Comparator.naturalOrder());
+        List<Integer> expected = new ArrayList<>();
+
+        // Good Case
+        assertTrue(list.isEmpty());
+        assertNull(list.first());
+        for(int i = 0; i < 5_000; ++i) {
+            int value = random.nextInt(1_000);
+            assertEquals(i + 1, list.add(value));
+            expected.add(value);
+        }
+        Collections.sort(expected);
+
+        assertEquals(expected, collect(list));
+        assertEquals(expected.get(0), list.first());
+        assertEquals(expected.get(expected.size() - 1), list.last());
+
+        Collections.reverse(expected);
+        assertEquals(expected, collect(list.descending()));
+    }
+
+    @Test
+    void equalKeysKeepTheirOrder() {
+        MySkipList<Integer, String> list = new MySkipList<>(String::length, Comparator.naturalOrder());
+        for(String word : new String[] {"pear", "fig", "plum", "kiwi", "yam"})
+            list.add(word);
+
+        // Good Case
+        assertEquals("(fig, yam, pear, plum, kiwi)", list.toString());
+        assertEquals("[kiwi, plum, pear, yam, fig]", collect(list.descending()).toString());
+    }
+
+    @Test
+    void range() {
+        MySkipList<Integer, Integer> list = new MySkipList<>(value -> value, Comparator.naturalOrder());
+        for(int i = 0; i < 100; i += 2)
+            list.add(i);
+
+        // Good Case - the first key is included and the second is not, in either direction
+        assertEquals("[10, 12, 14, 16, 18]", collect(list.range(10, 20)).toString());
+        assertEquals("[18, 16, 14, 12, 10]", collect(list.descendingRange(10, 20)).toString());
+        assertEquals("[12, 14]", collect(list.range(11, 15)).toString());
+        assertEquals("[96, 98]", collect(list.range(95, null)).toString());
+        assertEquals("[2, 0]", collect(list.descendingRange(null, 3)).toString());
+
+        // Bad Case - nothing is between the keys
+        assertTrue(collect(list.range(20, 20)).isEmpty());
+        assertTrue(collect(list.range(200, 300)).isEmpty());
+        assertTrue(collect(list.descendingRange(-10, 0)).isEmpty());
+    }
+
+    private static <T> List<T> collect(Iterable<T> items) {
+        List<T> retVal = new ArrayList<>();
+        for(T item : items)
+            retVal.add(item);
+        return retVal;
+    }
+}
@@ -0,0 +1,73 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.StripedLockManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockManagerTest {
+
+    @Test
+    void lockExcludesTheSameKey() throws InterruptedException {
+        StripedLockManager locks = new StripedLockManager(16);
+        int[] counter = {0};
+
+        // Good Case - unsynchronized increments under the lock are never lost
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 8; ++i)
+            pool.execute(() -> {
+                for(int j = 0; j < 10_000; ++j) {
+                    StripedLockManager.Handle lock = locks.lock("account");
+                    try {
+                        ++counter[0];
+                    } finally {
+                        lock.close();
+                    }
+                }
+            });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(80_000, counter[0]);
+        assertEquals(80_000, locks.getAcquisitionCount());
+    }
+
+    @Test
+    void opposingOrdersDoNotDeadlock() throws InterruptedException {
+        StripedLockManager locks = new StripedLockManager(64);
+
+        // Good Case - transfers in both directions between the same accounts all finish
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 8; ++i) {
+            boolean forward = i % 2 == 0;
+            pool.execute(() -> {
+                for(int j = 0; j < 10_000; ++j)
+                    try(StripedLockManager.Handle lock = forward ? locks.lock("a", "b") : locks.lock("b", "a")) {
+                        assertNotNull(lock);
+                    }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lockIgnoresNullAndRepeatedKeys() {
+        StripedLockManager locks = new StripedLockManager(10);
+        assertEquals(16, locks.getStripeCount());
+
+        // Good Case - a key given twice, or a null key, is locked once and released cleanly
+        try(StripedLockManager.Handle lock = locks.lock("a", null, "a")) {
+            assertNotNull(lock);
+        }
+        try(StripedLockManager.Handle lock = locks.lock("a")) {
+            assertNotNull(lock);
+        }
+
+        // Bad Case
+        assertThrows(IllegalArgumentException.class, () -> new StripedLockManager(0));
+    }
+}
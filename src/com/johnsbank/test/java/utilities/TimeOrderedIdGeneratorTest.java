@@ -0,0 +1,64 @@
+package com.johnsbank.test.java.utilities;
+
+import com.johnsbank.java.utilities.IdGenerator;
+import com.johnsbank.java.utilities.TimeOrderedIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws InterruptedException {
+        IdGenerator generator = new TimeOrderedIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        // Good Case - many threads making ids in the same milliseconds never collide
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for(int i = 0; i < 8; ++i)
+            pool.execute(() -> {
+                for(int j = 0; j < 10_000; ++j)
+                    ids.add(generator.nextHex());
+            });
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(80_000, ids.size());
+        for(String id : ids)
+            assertTrue(id.matches("[a-f0-9]{64}"));
+    }
+
+    @Test
+    void idsSortInTheOrderTheyWereMade() {
+        IdGenerator generator = new TimeOrderedIdGenerator(0xBEEF);
+
+        // Good Case - each id sorts after the one before it, as bytes and as hexadecimal
+        String previous = generator.nextHex();
+        for(int i = 0; i < 100_000; ++i) {
+            String next = generator.nextHex();
+            assertTrue(next.compareTo(previous) > 0);
+            assertEquals("beef", next.substring(16, 20));
+            previous = next;
+        }
+    }
+
+    @Test
+    void nextWritesIntoTheBuffer() {
+        IdGenerator generator = new TimeOrderedIdGenerator(7);
+        byte[] buffer = new byte[IdGenerator.ID_LENGTH + 4];
+
+        // Good Case - the id lands at the offset and leaves the rest of the buffer alone
+        generator.next(buffer, 2);
+        assertEquals(0, buffer[0]);
+        assertEquals(0, buffer[1]);
+        assertEquals(7, buffer[2 + 9]);
+
+        // Bad Case
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.next(buffer, 5));
+    }
+}
@@ -0,0 +1,46 @@
+-- Secondary indexes for the lookups the repository makes. Without them every history, page and owner
+-- lookup scans its whole table
+
+-- Databases built by the old reset script were adopted by the baseline without the columns history is
+-- ordered by. Existing rows are dated by the day they were made and numbered in that order, rather than
+-- all getting the time of the migration and the order they happen to be stored in
+ALTER TABLE "Account_Data" ADD COLUMN IF NOT EXISTS "Version" BIGINT NOT NULL DEFAULT 0;
+
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                 WHERE table_name = 'Transactions' AND column_name = 'Made_At') THEN
+    ALTER TABLE "Transactions" ADD COLUMN "Made_At" TIMESTAMPTZ;
+    UPDATE "Transactions" SET "Made_At" = COALESCE("Date_Made"::timestamptz, now());
+    ALTER TABLE "Transactions"
+      ALTER COLUMN "Made_At" SET DEFAULT now(),
+      ALTER COLUMN "Made_At" SET NOT NULL;
+  END IF;
+
+  IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                 WHERE table_name = 'Transactions' AND column_name = 'Sequence') THEN
+    ALTER TABLE "Transactions" ADD COLUMN "Sequence" BIGINT;
+    UPDATE "Transactions" SET "Sequence" = "Numbered"."Position"
+      FROM (SELECT "Transacation_ID", row_number() OVER (ORDER BY "Made_At", "Transacation_ID") AS "Position"
+            FROM "Transactions") AS "Numbered"
+      WHERE "Transactions"."Transacation_ID" = "Numbered"."Transacation_ID";
+    -- continue numbering after the existing rows, as the BIGSERIAL of a new table would
+    CREATE SEQUENCE "Transactions_Sequence_seq" OWNED BY "Transactions"."Sequence";
+    PERFORM setval('"Transactions_Sequence_seq"', COALESCE(max("Sequence"), 0) + 1, false) FROM "Transactions";
+    ALTER TABLE "Transactions"
+      ALTER COLUMN "Sequence" SET DEFAULT nextval('"Transactions_Sequence_seq"'),
+      ALTER COLUMN "Sequence" SET NOT NULL,
+      ADD UNIQUE ("Sequence");
+  END IF;
+END
+$$;
+
+-- History is read newest first for one account at a time, from either side of the transfer
+CREATE INDEX IF NOT EXISTS "Transactions_From_History"
+  ON "Transactions" ("From_Account", "Made_At" DESC, "Sequence" DESC);
+CREATE INDEX IF NOT EXISTS "Transactions_To_History"
+  ON "Transactions" ("To_Account", "Made_At" DESC, "Sequence" DESC);
+
+-- The primary key leads with the username, owners of an account are found through this one
+CREATE INDEX IF NOT EXISTS "User_Accounts_Account"
+  ON "User_Accounts" ("Account_ID");
@@ -0,0 +1,24 @@
+-- Account and transaction ids were stored as 64 hexadecimal characters, they are now kept as the 32 bytes
+-- they represent. This halves every id column and every index holding one. The foreign keys are dropped
+-- while both of their sides change type, then put back
+
+ALTER TABLE "User_Accounts" DROP CONSTRAINT IF EXISTS "User_Accounts_Account_ID_fkey";
+ALTER TABLE "Transactions" DROP CONSTRAINT IF EXISTS "Transactions_From_Account_fkey";
+
+ALTER TABLE "Account_Data"
+  ALTER COLUMN "Account_ID" TYPE BYTEA USING decode("Account_ID", 'hex'),
+  ADD CONSTRAINT "Account_Data_Account_ID_length" CHECK (octet_length("Account_ID") = 32);
+
+ALTER TABLE "User_Accounts"
+  ALTER COLUMN "Account_ID" TYPE BYTEA USING decode("Account_ID", 'hex');
+
+ALTER TABLE "Transactions"
+  ALTER COLUMN "Transacation_ID" TYPE BYTEA USING decode("Transacation_ID", 'hex'),
+  ALTER COLUMN "From_Account" TYPE BYTEA USING decode("From_Account", 'hex'),
+  ALTER COLUMN "To_Account" TYPE BYTEA USING decode("To_Account", 'hex'),
+  ADD CONSTRAINT "Transactions_Transacation_ID_length" CHECK (octet_length("Transacation_ID") = 32);
+
+ALTER TABLE "User_Accounts" ADD CONSTRAINT "User_Accounts_Account_ID_fkey"
+  FOREIGN KEY ("Account_ID") REFERENCES "Account_Data"("Account_ID") ON DELETE CASCADE ON UPDATE CASCADE;
+ALTER TABLE "Transactions" ADD CONSTRAINT "Transactions_From_Account_fkey"
+  FOREIGN KEY ("From_Account") REFERENCES "Account_Data"("Account_ID") ON DELETE RESTRICT ON UPDATE CASCADE;